@@ -4,6 +4,7 @@
 import dev.lukebemish.syringe.EvaluatedType;
 import dev.lukebemish.syringe.InstantiatorDiscoverer;
 import dev.lukebemish.syringe.ObjectFactory;
+import dev.lukebemish.syringe.SpecializedInstantiator;
 import dev.lukebemish.syringe.annotations.Inject;
 import dev.lukebemish.syringe.annotations.ModScope;
 import net.minecraft.core.Registry;
@@ -28,78 +29,89 @@ public void configure(ObjectFactory.Configuration configuration) {
     }
 
     @SuppressWarnings("rawtypes")
-    public abstract static class Instantiator implements dev.lukebemish.syringe.Instantiator<DeferredRegister> {
+    public abstract static class Instantiator implements SpecializedInstantiator<DeferredRegister> {
         @Inject
         protected abstract IModInfo getModInfo();
         @Inject
         protected abstract IEventBus getEventBus();
 
         @Override
-        public DeferredRegister newInstance(List<EvaluatedType> typeParameters, Object... args) {
-            if (args.length != 1) {
-                throw new IllegalArgumentException("Expected 1 argument, got " + args.length);
-            }
-            var register = obtainKey(args);
-            register.register(getEventBus());
-            return register;
+        public Creator<DeferredRegister> specialize(List<EvaluatedType> typeParameters) {
+            var namespace = getModInfo().getNamespace();
+            var eventBus = getEventBus();
+            return args -> {
+                if (args.length != 1) {
+                    throw new IllegalArgumentException("Expected 1 argument, got " + args.length);
+                }
+                var register = DeferredRegister.create(registryKey(args[0]), namespace);
+                register.register(eventBus);
+                return register;
+            };
         }
 
         @SuppressWarnings("unchecked")
-        private <T> DeferredRegister<T> obtainKey(Object[] args) {
-            ResourceKey<? extends Registry<T>> registryKey;
-            switch (args[0]) {
+        private static <T> ResourceKey<? extends Registry<T>> registryKey(Object key) {
+            return switch (key) {
                 case ResourceKey resourceKey when resourceKey.registry().equals(Registries.ROOT_REGISTRY_NAME) ->
-                    registryKey = (ResourceKey<Registry<T>>) resourceKey;
-                case ResourceLocation resourceLocation -> registryKey = ResourceKey.createRegistryKey(resourceLocation);
-                case String string -> {
-                    var resourceLocation = ResourceLocation.parse(string);
-                    registryKey = ResourceKey.createRegistryKey(resourceLocation);
-                }
+                    (ResourceKey<Registry<T>>) resourceKey;
+                case ResourceLocation resourceLocation -> ResourceKey.createRegistryKey(resourceLocation);
+                case String string -> ResourceKey.createRegistryKey(ResourceLocation.parse(string));
                 default ->
-                    throw new IllegalArgumentException("Received " + args[0] + ", which cannot be converted into a registry key");
-            }
-            return DeferredRegister.create(registryKey, getModInfo().getNamespace());
+                    throw new IllegalArgumentException("Received " + key + ", which cannot be converted into a registry key");
+            };
         }
 
-        public abstract static class Blocks implements dev.lukebemish.syringe.Instantiator<DeferredRegister.Blocks> {
+        public abstract static class Blocks implements SpecializedInstantiator<DeferredRegister.Blocks> {
             @Inject
             protected abstract IModInfo getModInfo();
             @Inject
             protected abstract IEventBus getEventBus();
 
             @Override
-            public DeferredRegister.Blocks newInstance(List<EvaluatedType> typeParameters, Object... args) {
-                var register = DeferredRegister.createBlocks(getModInfo().getNamespace());
-                register.register(getEventBus());
-                return register;
+            public Creator<DeferredRegister.Blocks> specialize(List<EvaluatedType> typeParameters) {
+                var namespace = getModInfo().getNamespace();
+                var eventBus = getEventBus();
+                return args -> {
+                    var register = DeferredRegister.createBlocks(namespace);
+                    register.register(eventBus);
+                    return register;
+                };
             }
         }
 
-        public abstract static class Items implements dev.lukebemish.syringe.Instantiator<DeferredRegister.Items> {
+        public abstract static class Items implements SpecializedInstantiator<DeferredRegister.Items> {
             @Inject
             protected abstract IModInfo getModInfo();
             @Inject
             protected abstract IEventBus getEventBus();
 
             @Override
-            public DeferredRegister.Items newInstance(List<EvaluatedType> typeParameters, Object... args) {
-                var register = DeferredRegister.createItems(getModInfo().getNamespace());
-                register.register(getEventBus());
-                return register;
+            public Creator<DeferredRegister.Items> specialize(List<EvaluatedType> typeParameters) {
+                var namespace = getModInfo().getNamespace();
+                var eventBus = getEventBus();
+                return args -> {
+                    var register = DeferredRegister.createItems(namespace);
+                    register.register(eventBus);
+                    return register;
+                };
             }
         }
 
-        public abstract static class DataComponents implements dev.lukebemish.syringe.Instantiator<DeferredRegister.DataComponents> {
+        public abstract static class DataComponents implements SpecializedInstantiator<DeferredRegister.DataComponents> {
             @Inject
             protected abstract IModInfo getModInfo();
             @Inject
             protected abstract IEventBus getEventBus();
 
             @Override
-            public DeferredRegister.DataComponents newInstance(List<EvaluatedType> typeParameters, Object... args) {
-                var register = DeferredRegister.createDataComponents(getModInfo().getNamespace());
-                register.register(getEventBus());
-                return register;
+            public Creator<DeferredRegister.DataComponents> specialize(List<EvaluatedType> typeParameters) {
+                var namespace = getModInfo().getNamespace();
+                var eventBus = getEventBus();
+                return args -> {
+                    var register = DeferredRegister.createDataComponents(namespace);
+                    register.register(eventBus);
+                    return register;
+                };
             }
         }
     }
@@ -0,0 +1,19 @@
+package dev.lukebemish.syringe;
+
+import dev.lukebemish.syringe.attachment.AttachmentTarget;
+
+import java.util.ServiceLoader;
+
+// Benchmarks run outside of FML, so Syringe is bootstrapped explicitly, once per JVM
+final class BenchmarkEnvironment {
+    private static final ObjectFactory ROOT = Standalone.bootstrap(
+        AttachmentTarget.lookup(),
+        ServiceLoader.load(InstantiatorDiscoverer.class).stream().map(ServiceLoader.Provider::get).toList()
+    );
+
+    private BenchmarkEnvironment() {}
+
+    static ObjectFactory root() {
+        return ROOT;
+    }
+}
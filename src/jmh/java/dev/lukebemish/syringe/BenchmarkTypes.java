@@ -0,0 +1,44 @@
+package dev.lukebemish.syringe;
+
+import dev.lukebemish.syringe.annotations.Inject;
+
+public final class BenchmarkTypes {
+    private BenchmarkTypes() {}
+
+    public static class Plain {
+        public Plain() {}
+    }
+
+    public static class Service {
+        public Service() {}
+    }
+
+    public static class Direct {
+        public final Service service;
+
+        @Inject
+        public Direct(Service service) {
+            this.service = service;
+        }
+    }
+
+    public abstract static class Generated {
+        @Inject
+        public abstract Service service();
+
+        @Inject
+        public abstract ObjectFactory objectFactory();
+    }
+
+    public abstract static class GeneratedWithArgument {
+        public final String name;
+
+        @Inject
+        public abstract Service service();
+
+        @Inject
+        public GeneratedWithArgument(String name) {
+            this.name = name;
+        }
+    }
+}
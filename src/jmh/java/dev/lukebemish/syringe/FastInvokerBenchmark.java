@@ -0,0 +1,66 @@
+package dev.lukebemish.syringe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastInvokerBenchmark {
+    private static final MethodHandle CONSTANT_HANDLE;
+
+    static {
+        try {
+            CONSTANT_HANDLE = MethodHandles.publicLookup().findConstructor(BenchmarkTypes.Direct.class, MethodType.methodType(void.class, BenchmarkTypes.Service.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private MethodHandle handle;
+    private FastInvoker invoker;
+    private Object service;
+
+    @Setup
+    public void setup() {
+        handle = CONSTANT_HANDLE;
+        invoker = FastInvoker.create(CONSTANT_HANDLE);
+        service = new BenchmarkTypes.Service();
+    }
+
+    @Benchmark
+    public Object fastInvokerSpecialized() throws Throwable {
+        return invoker.invoke1(service);
+    }
+
+    @Benchmark
+    public Object fastInvokerArray() throws Throwable {
+        return invoker.invoke(new Object[] {service});
+    }
+
+    @Benchmark
+    public Object constantHandle() throws Throwable {
+        return (BenchmarkTypes.Direct) CONSTANT_HANDLE.invokeExact((BenchmarkTypes.Service) service);
+    }
+
+    @Benchmark
+    public Object handle() throws Throwable {
+        return handle.invoke(service);
+    }
+}
@@ -0,0 +1,68 @@
+package dev.lukebemish.syringe;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.concurrent.TimeUnit;
+
+// Each operation defines a new hidden class; these are unreachable afterward, so can be unloaded
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerationBenchmark {
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.root();
+    }
+
+    @Benchmark
+    public Object implementGenerated() {
+        return InjectedImplementation.implement(BenchmarkTypes.Generated.class);
+    }
+
+    @Benchmark
+    public Object implementDirect() {
+        return InjectedImplementation.implement(BenchmarkTypes.Direct.class);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Metaspace {
+        private MemoryPoolMXBean pool;
+
+        // Divide by the number of types to get the metaspace cost of each generated type
+        public long metaspaceBytes;
+        public long types;
+
+        @Setup
+        public void setup() {
+            pool = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getName().equals("Metaspace"))
+                .findFirst()
+                .orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public Object implementGeneratedMetaspace(Metaspace metaspace) {
+        var before = metaspace.pool.getUsage().getUsed();
+        var implementation = InjectedImplementation.implement(BenchmarkTypes.Generated.class);
+        metaspace.metaspaceBytes += metaspace.pool.getUsage().getUsed() - before;
+        metaspace.types++;
+        return implementation;
+    }
+}
@@ -0,0 +1,56 @@
+package dev.lukebemish.syringe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantiationBenchmark {
+    private ObjectFactory factory;
+
+    @Setup
+    public void setup() {
+        var configuration = ObjectFactory.Configuration.create();
+        configuration.bindService(BenchmarkTypes.Service.class);
+        factory = BenchmarkEnvironment.root().newObjectFactory(configuration);
+    }
+
+    @Benchmark
+    public Object plain() {
+        return factory.newInstance(BenchmarkTypes.Plain.class);
+    }
+
+    @Benchmark
+    public Object direct() {
+        return factory.newInstance(BenchmarkTypes.Direct.class);
+    }
+
+    @Benchmark
+    public Object generated() {
+        return factory.newInstance(BenchmarkTypes.Generated.class);
+    }
+
+    @Benchmark
+    public Object generatedWithArgument() {
+        return factory.newInstance(BenchmarkTypes.GeneratedWithArgument.class, "name");
+    }
+
+    @Benchmark
+    public Object baseline() {
+        return new BenchmarkTypes.Direct(new BenchmarkTypes.Service());
+    }
+}
@@ -0,0 +1,48 @@
+package dev.lukebemish.syringe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+    @Param({"1", "4", "16"})
+    public int depth;
+
+    private ObjectFactory factory;
+
+    @Setup
+    public void setup() {
+        var configuration = ObjectFactory.Configuration.create();
+        configuration.bindService(BenchmarkTypes.Service.class);
+        factory = BenchmarkEnvironment.root().newObjectFactory(configuration);
+        for (int i = 1; i < depth; i++) {
+            factory = factory.newObjectFactory(ObjectFactory.Configuration.create());
+        }
+    }
+
+    @Benchmark
+    public Object findService() {
+        return factory.findService(BenchmarkTypes.Service.class);
+    }
+
+    @Benchmark
+    public Object findObjectFactory() {
+        return factory.findService(ObjectFactory.class);
+    }
+}
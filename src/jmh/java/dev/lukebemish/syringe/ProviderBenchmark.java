@@ -0,0 +1,52 @@
+package dev.lukebemish.syringe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderBenchmark {
+    private Provider<Object> constant;
+    private Provider<Object> delayed;
+    private Provider<Object> lazy;
+
+    @Setup
+    public void setup() {
+        var type = EvaluatedType.of(Object.class);
+        constant = new ConstantProvider<>(new Object());
+        var delayedProvider = new DelayedProvider<>(type);
+        delayedProvider.set(new Object());
+        delayed = delayedProvider;
+        lazy = new LazyProvider<>(Object::new, type);
+        lazy.get();
+    }
+
+    @Benchmark
+    public Object constant() {
+        return constant.get();
+    }
+
+    @Benchmark
+    public Object delayed() {
+        return delayed.get();
+    }
+
+    @Benchmark
+    public Object lazy() {
+        return lazy.get();
+    }
+}
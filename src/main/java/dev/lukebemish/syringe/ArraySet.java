@@ -0,0 +1,74 @@
+package dev.lukebemish.syringe;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+// An immutable set backed by an array, in contribution order. Multibound sets are built once per factory and then mostly
+// iterated, so membership checks are a linear scan rather than paying for a hash table on every injection.
+final class ArraySet<E> extends AbstractSet<E> {
+    private final Object[] elements;
+
+    private ArraySet(Object[] elements) {
+        this.elements = elements;
+    }
+
+    static <E> ArraySet<E> of(Collection<? extends E> first, Collection<? extends E> second) {
+        var unique = new LinkedHashSet<E>(first);
+        unique.addAll(second);
+        return new ArraySet<>(unique.toArray());
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < elements.length;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public E next() {
+                if (index >= elements.length) {
+                    throw new NoSuchElementException();
+                }
+                return (E) elements[index++];
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        for (var element : elements) {
+            action.accept((E) element);
+        }
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        for (var element : elements) {
+            if (element.equals(o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, elements.length);
+    }
+}
@@ -0,0 +1,117 @@
+package dev.lukebemish.syringe;
+
+import dev.lukebemish.syringe.annotations.AssistedFactory;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Implementations of @AssistedFactory interfaces. The bytes only depend on the interface; each object factory defines its
+// own class from them, with the fully bound constructor handle as class data, so that the handle is a constant to the JIT.
+final class AssistedFactories {
+    private record Shape(Method method, byte[] bytes) {}
+
+    private static final Map<Class<?>, Shape> SHAPES = new ConcurrentHashMap<>();
+
+    private AssistedFactories() {}
+
+    static Method method(Class<?> factoryType) {
+        return SHAPES.computeIfAbsent(factoryType, AssistedFactories::generate).method();
+    }
+
+    // The target must already have exactly the type of the interface's method
+    static Object define(Class<?> factoryType, MethodHandle target) {
+        var shape = SHAPES.computeIfAbsent(factoryType, AssistedFactories::generate);
+        var event = new SyringeEvents.ClassDefinition();
+        event.begin();
+        try {
+            var lookup = Bootstrap.ATTACHMENT_TARGET.defineHiddenClassWithClassData(shape.bytes(), target, false);
+            event.end();
+            if (event.shouldCommit()) {
+                event.injectedType = factoryType;
+                event.size = shape.bytes().length;
+                event.commit();
+            }
+            return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to implement assisted factory "+factoryType.getName(), e);
+        }
+    }
+
+    private static Shape generate(Class<?> factoryType) {
+        if (!factoryType.isInterface() || !factoryType.isAnnotationPresent(AssistedFactory.class)) {
+            throw new RuntimeException("Interface to implement must be annotated with @AssistedFactory: "+factoryType);
+        }
+        if ((factoryType.getModifiers() & Modifier.PUBLIC) == 0) {
+            throw new RuntimeException("Assisted factory must be public: "+factoryType);
+        }
+        Method method = null;
+        for (var candidate : factoryType.getMethods()) {
+            if (!Modifier.isAbstract(candidate.getModifiers())) {
+                continue;
+            }
+            // The same method may be inherited from several interfaces
+            if (method != null && !(method.getName().equals(candidate.getName()) && type(method).equals(type(candidate)))) {
+                throw new RuntimeException("Assisted factory must have exactly one abstract method: "+factoryType);
+            }
+            method = candidate;
+        }
+        if (method == null) {
+            throw new RuntimeException("Assisted factory must have exactly one abstract method: "+factoryType);
+        }
+
+        var methodType = type(method);
+        var writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        var name = (Bootstrap.ATTACHMENT_TARGET.lookupClass().getName()+"$"+factoryType.getSimpleName()).replace('.', '/');
+        writer.visit(Opcodes.V21, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, name, null, Type.getInternalName(Object.class), new String[] {Type.getInternalName(factoryType)});
+
+        var ctor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        ctor.visitCode();
+        ctor.visitVarInsn(Opcodes.ALOAD, 0);
+        ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        ctor.visitInsn(Opcodes.RETURN);
+        ctor.visitMaxs(0, 0);
+        ctor.visitEnd();
+
+        var classData = new ConstantDynamic(
+            "_",
+            MethodHandle.class.descriptorString(),
+            new Handle(
+                Opcodes.H_INVOKESTATIC,
+                Type.getInternalName(MethodHandles.class),
+                "classData",
+                MethodType.methodType(Object.class, MethodHandles.Lookup.class, String.class, Class.class).descriptorString(),
+                false
+            )
+        );
+        var create = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, method.getName(), methodType.descriptorString(), null, null);
+        create.visitCode();
+        create.visitLdcInsn(classData);
+        int index = 1;
+        for (var parameter : method.getParameterTypes()) {
+            var type = Type.getType(parameter);
+            create.visitVarInsn(type.getOpcode(Opcodes.ILOAD), index);
+            index += type.getSize();
+        }
+        create.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MethodHandle.class), "invokeExact", methodType.descriptorString(), false);
+        create.visitInsn(Type.getType(method.getReturnType()).getOpcode(Opcodes.IRETURN));
+        create.visitMaxs(0, 0);
+        create.visitEnd();
+
+        writer.visitEnd();
+        return new Shape(method, writer.toByteArray());
+    }
+
+    static MethodType type(Method method) {
+        return MethodType.methodType(method.getReturnType(), method.getParameterTypes());
+    }
+}
@@ -0,0 +1,58 @@
+package dev.lukebemish.syringe;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Provides a service that is constructed in the background, starting when the object factory binding it is created.
+ * Inject {@code AsyncProvider<T>} rather than {@code Provider<T>} or {@code T} to wait for the service without blocking.
+ */
+public final class AsyncProvider<T> implements Provider<T> {
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private final EvaluatedType type;
+    private volatile boolean started;
+
+    AsyncProvider(EvaluatedType type) {
+        this.type = type;
+    }
+
+    void start() {
+        this.started = true;
+    }
+
+    void complete(T value) {
+        future.complete(value);
+    }
+
+    void fail(Throwable throwable) {
+        future.completeExceptionally(throwable);
+    }
+
+    /**
+     * Blocks until the service has been constructed.
+     */
+    @Override
+    public T get() {
+        if (!started) {
+            throw new IllegalStateException("Service of type "+type+" is constructed asynchronously once its factory has been created, and cannot be required while creating it");
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to construct service of type "+type, e.getCause());
+        }
+    }
+
+    @Override
+    public boolean isPresent() {
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    /**
+     * A future completed with the service once it has been constructed. Completing the returned future does not affect
+     * the provider.
+     */
+    public CompletableFuture<T> future() {
+        return future.copy();
+    }
+}
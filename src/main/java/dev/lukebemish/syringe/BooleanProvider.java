@@ -0,0 +1,6 @@
+package dev.lukebemish.syringe;
+
+@FunctionalInterface
+public interface BooleanProvider {
+    boolean getAsBoolean();
+}
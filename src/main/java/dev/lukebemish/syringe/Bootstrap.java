@@ -2,9 +2,12 @@
 
 import dev.lukebemish.syringe.annotations.ModScope;
 import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.fml.loading.FMLPaths;
+import org.jspecify.annotations.Nullable;
 
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
@@ -13,6 +16,7 @@ final class Bootstrap {
     static final String ATTACHMENT_MODULE = "dev.lukebemish.syringe.attachment";
     static final String ATTACHMENT_TARGET_NAME = "dev.lukebemish.syringe.attachment.AttachmentTarget";
     static final MethodHandles.Lookup ATTACHMENT_TARGET;
+    static final @Nullable GeneratedClassCache CACHE;
     static final ObjectFactoryImplementation BOOTSTRAP;
     static final ObjectFactoryImplementation ROOT;
 
@@ -20,28 +24,36 @@ final class Bootstrap {
 
     private Bootstrap() {}
 
+    // Where generated classes are defined, where discoverers come from, and where generated classes are cached, if anywhere
+    record Environment(MethodHandles.Lookup target, List<InstantiatorDiscoverer> discoverers, @Nullable Path cacheDirectory) {}
+
     static {
-        var layer = FMLLoader.getGameLayer();
         try {
-            var targetClass = layer.findLoader(Bootstrap.ATTACHMENT_MODULE).loadClass(Bootstrap.ATTACHMENT_TARGET_NAME);
-            var lookupMethod = MethodHandles.publicLookup().findStatic(targetClass, "lookup", MethodType.methodType(MethodHandles.Lookup.class));
-            ATTACHMENT_TARGET = (MethodHandles.Lookup) lookupMethod.invoke();
+            var environment = Standalone.claim();
+            if (environment == null) {
+                environment = defaultEnvironment();
+            }
+
+            ATTACHMENT_TARGET = environment.target();
+
+            // Must be available before any factories are created below
+            var cacheDirectory = environment.cacheDirectory();
+            CACHE = cacheDirectory == null || Boolean.getBoolean("syringe.disableCache") ? null : GeneratedClassCache.open(cacheDirectory, ATTACHMENT_TARGET.lookupClass());
 
             var perMod = new ArrayList<InstantiatorDiscoverer>();
             var singleton= new ArrayList<InstantiatorDiscoverer>();
 
-            ServiceLoader.load(layer, InstantiatorDiscoverer.class).stream().forEach(p -> {
-                var discoverer = p.get();
+            for (var discoverer : environment.discoverers()) {
                 if (discoverer.getClass().isAnnotationPresent(ModScope.class)) {
                     perMod.add(discoverer);
                 } else {
                     singleton.add(discoverer);
                 }
-            });
+            }
 
             PER_MOD = List.copyOf(perMod);
 
-            BOOTSTRAP = new ObjectFactoryImplementation(targetClass.getClassLoader(), null);
+            BOOTSTRAP = new ObjectFactoryImplementation(ATTACHMENT_TARGET.lookupClass().getClassLoader(), null);
             var configuration = ObjectFactory.Configuration.create();
             for (var discoverer : singleton) {
                 discoverer.configure(configuration);
@@ -51,4 +63,25 @@ private Bootstrap() {}
             throw new RuntimeException(e);
         }
     }
+
+    // Anywhere other than FML, Standalone must have provided the environment
+    private static Environment defaultEnvironment() throws Throwable {
+        ModuleLayer layer = null;
+        try {
+            layer = FMLLoader.getGameLayer();
+        } catch (LinkageError ignored) {
+            // FML is not present at all
+        }
+        if (layer == null) {
+            throw new IllegalStateException("Syringe is not running under FML, so must be bootstrapped with Standalone.bootstrap before it is used");
+        }
+        var targetClass = layer.findLoader(Bootstrap.ATTACHMENT_MODULE).loadClass(Bootstrap.ATTACHMENT_TARGET_NAME);
+        var discoverers = ServiceLoader.load(layer, InstantiatorDiscoverer.class).stream().map(ServiceLoader.Provider::get).toList();
+        return new Environment(attachmentTarget(targetClass), discoverers, FMLPaths.GAMEDIR.get().resolve(".cache").resolve("syringe"));
+    }
+
+    private static MethodHandles.Lookup attachmentTarget(Class<?> targetClass) throws Throwable {
+        var lookupMethod = MethodHandles.publicLookup().findStatic(targetClass, "lookup", MethodType.methodType(MethodHandles.Lookup.class));
+        return (MethodHandles.Lookup) lookupMethod.invoke();
+    }
 }
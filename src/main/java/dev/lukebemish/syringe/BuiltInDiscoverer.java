@@ -13,17 +13,19 @@ public void configure(ObjectFactory.Configuration configuration) {
     }
 
     @SuppressWarnings("rawtypes")
-    public abstract static class ProviderInstantiator implements Instantiator<Provider> {
+    public abstract static class ProviderInstantiator implements SpecializedInstantiator<Provider> {
         @Inject
         protected abstract ObjectFactory getObjectFactory();
 
         @Override
-        public Provider newInstance(List<EvaluatedType> typeParameters, Object... args) {
+        public Creator<Provider> specialize(List<EvaluatedType> typeParameters) {
             if (typeParameters.isEmpty()) {
                 throw new IllegalArgumentException("Provider must have a type parameter to be instantiated");
             }
             var type = typeParameters.getFirst();
-            return new LazyProvider<>(() -> getObjectFactory().newInstance(type, args), new EvaluatedType(Provider.class, typeParameters));
+            var providerType = EvaluatedType.of(Provider.class, typeParameters);
+            var factory = getObjectFactory();
+            return args -> new LazyProvider<>(() -> factory.newInstance(type, args), providerType);
         }
     }
 }
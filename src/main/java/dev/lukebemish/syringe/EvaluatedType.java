@@ -1,32 +1,121 @@
 package dev.lukebemish.syringe;
 
+import org.jspecify.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+// Instances obtained through the static factories are interned, so equal types from those are usually identical. Types
+// are used as map keys on every lookup, so the hash is computed once rather than walking the type each time.
+public final class EvaluatedType {
+    // Owned by the class itself, so does not keep its loader alive
+    private static final ClassValue<EvaluatedType> RAW = new ClassValue<>() {
+        @Override
+        protected EvaluatedType computeValue(Class<?> type) {
+            return new EvaluatedType(type, List.of());
+        }
+    };
 
-public record EvaluatedType(Class<?> rawType, List<EvaluatedType> typeParameters) {
-    public EvaluatedType {
+    // Weak, as parameterized types may mix classes from any number of loaders; an entry lasts as long as its type is in
+    // use. Striped by hash, so that threads interning unrelated types do not contend.
+    private static final int STRIPES = 16;
+    private static final InternTable[] PARAMETERIZED = new InternTable[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            PARAMETERIZED[i] = new InternTable();
+        }
+    }
+
+    private static final class InternTable {
+        private final Map<EvaluatedType, WeakReference<EvaluatedType>> types = new WeakHashMap<>();
+
+        synchronized EvaluatedType intern(EvaluatedType candidate) {
+            var existing = types.get(candidate);
+            var interned = existing == null ? null : existing.get();
+            if (interned != null) {
+                return interned;
+            }
+            types.put(candidate, new WeakReference<>(candidate));
+            return candidate;
+        }
+    }
+
+    private final Class<?> rawType;
+    private final List<EvaluatedType> typeParameters;
+    private final int hash;
+
+    public EvaluatedType(Class<?> rawType, List<EvaluatedType> typeParameters) {
         if (rawType.getTypeParameters().length != typeParameters.size() && !typeParameters.isEmpty()) {
             throw new IllegalArgumentException("Type "+rawType+" should either be raw, with no type parameters, or have "+rawType.getTypeParameters().length+" type parameters, but "+typeParameters.size()+" were provided");
         }
+        this.rawType = rawType;
+        this.typeParameters = List.copyOf(typeParameters);
+        this.hash = 31 * rawType.hashCode() + this.typeParameters.hashCode();
+    }
+
+    public Class<?> rawType() {
+        return rawType;
+    }
+
+    public List<EvaluatedType> typeParameters() {
+        return typeParameters;
+    }
+
+    public static EvaluatedType of(Class<?> rawType) {
+        return RAW.get(rawType);
+    }
+
+    public static EvaluatedType of(Class<?> rawType, List<EvaluatedType> typeParameters) {
+        if (typeParameters.isEmpty()) {
+            return of(rawType);
+        }
+        var parameters = new EvaluatedType[typeParameters.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = typeParameters.get(i).intern();
+        }
+        var candidate = new EvaluatedType(rawType, List.of(parameters));
+        return PARAMETERIZED[(candidate.hash ^ (candidate.hash >>> 16)) & (STRIPES - 1)].intern(candidate);
     }
 
     public static EvaluatedType of(Type type) {
         if (type instanceof Class<?> clazz) {
-            return new EvaluatedType(clazz, List.of());
+            return of(clazz);
         } else if (type instanceof ParameterizedType parameterizedType) {
             var rawType = parameterizedType.getRawType();
             if (rawType instanceof Class<?> rawTypeClass) {
-                var typeParameters = Stream.of(parameterizedType.getActualTypeArguments())
-                    .map(EvaluatedType::of)
-                    .toList();
-                return new EvaluatedType(rawTypeClass, typeParameters);
+                var arguments = parameterizedType.getActualTypeArguments();
+                var typeParameters = new EvaluatedType[arguments.length];
+                for (int i = 0; i < arguments.length; i++) {
+                    typeParameters[i] = of(arguments[i]);
+                }
+                return of(rawTypeClass, List.of(typeParameters));
             }
         }
         throw new IllegalArgumentException("Cannot evaluate type: " + type);
     }
 
+    public EvaluatedType intern() {
+        return of(rawType, typeParameters);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof EvaluatedType other && hash == other.hash && rawType == other.rawType && typeParameters.equals(other.typeParameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
     @Override
     public String toString() {
         var builder = new StringBuilder(rawType.getName());
@@ -1,124 +1,122 @@
 package dev.lukebemish.syringe;
 
-import org.objectweb.asm.ClassWriter;
-import org.objectweb.asm.ConstantDynamic;
-import org.objectweb.asm.Handle;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
-import java.lang.invoke.CallSite;
-import java.lang.invoke.ConstantCallSite;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 
-interface FastInvoker {
-    Object invoke(Object[] args);
-    MethodHandle handle();
+// Calls a constructor without defining a class for it. Generated implementations carry their own static entry points,
+// which take generic arguments and construct the class directly; any other constructor is adapted with method handles.
+final class FastInvoker {
+    // Must match the names used by the annotation processor
+    static final String CREATE = "$syringe_create";
+    static final String INVOKE = "$syringe_invoke";
+
+    private final MethodHandle handle;
+    // Takes exactly the constructor's arguments, as Objects
+    private final MethodHandle entryPoint;
+    private final MethodHandle spreader;
+
+    private FastInvoker(MethodHandle handle, MethodHandle entryPoint, MethodHandle spreader) {
+        this.handle = handle;
+        this.entryPoint = entryPoint;
+        this.spreader = spreader;
+    }
 
     static FastInvoker create(MethodHandle handle) {
         handle = handle.asFixedArity();
-        var targetType = handle.type().changeReturnType(Object.class);
-        for (int i = 0; i < handle.type().parameterCount(); i++) {
-            targetType = targetType.changeParameterType(i, Object.class);
-        }
+        var parameterCount = handle.type().parameterCount();
+        var entryPoint = handle.asType(MethodType.genericMethodType(parameterCount));
+        return new FastInvoker(handle, entryPoint, entryPoint.asSpreader(Object[].class, parameterCount));
+    }
 
-        var name = FastInvoker.class.getName().replace('.', '/')+"$Invoker";
-        var writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
-        writer.visit(
-            Opcodes.V21,
-            Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
-            name,
-            null,
-            Type.getInternalName(Object.class),
-            new String[] {Type.getInternalName(FastInvoker.class)}
+    // The owner must declare the entry points written by writeEntryPoints
+    static FastInvoker create(MethodHandles.Lookup lookup, Class<?> owner, MethodType type) throws NoSuchMethodException, IllegalAccessException {
+        return new FastInvoker(
+            lookup.findStatic(owner, CREATE, type),
+            lookup.findStatic(owner, INVOKE, MethodType.genericMethodType(type.parameterCount())),
+            lookup.findStatic(owner, INVOKE, MethodType.methodType(Object.class, Object[].class))
         );
+    }
 
-        var ctor = writer.visitMethod(
-            0,
-            "<init>",
-            "()V",
-            null,
-            null
-        );
-        ctor.visitCode();
-        ctor.visitVarInsn(Opcodes.ALOAD, 0);
-        ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
-        ctor.visitInsn(Opcodes.RETURN);
-        ctor.visitMaxs(0, 0);
-        ctor.visitEnd();
-
-        var implementation = writer.visitMethod(
-            Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
-            "invoke",
-            Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(Object[].class)),
-            null,
-            null
-        );
+    MethodHandle handle() {
+        return handle;
+    }
+
+    Object invoke(Object[] args) throws Throwable {
+        return (Object) spreader.invokeExact(args);
+    }
+
+    // Each entry point may only be used for a constructor of its arity
+    Object invoke0() throws Throwable {
+        return (Object) entryPoint.invokeExact();
+    }
+
+    Object invoke1(Object a0) throws Throwable {
+        return (Object) entryPoint.invokeExact(a0);
+    }
 
-        implementation.visitCode();
-        for (int i = 0; i < targetType.parameterCount(); i++) {
-            implementation.visitVarInsn(Opcodes.ALOAD, 1);
-            implementation.visitLdcInsn(i);
-            implementation.visitInsn(Opcodes.AALOAD);
+    Object invoke2(Object a0, Object a1) throws Throwable {
+        return (Object) entryPoint.invokeExact(a0, a1);
+    }
+
+    Object invoke3(Object a0, Object a1, Object a2) throws Throwable {
+        return (Object) entryPoint.invokeExact(a0, a1, a2);
+    }
+
+    Object invoke4(Object a0, Object a1, Object a2, Object a3) throws Throwable {
+        return (Object) entryPoint.invokeExact(a0, a1, a2, a3);
+    }
+
+    Object invoke5(Object a0, Object a1, Object a2, Object a3, Object a4) throws Throwable {
+        return (Object) entryPoint.invokeExact(a0, a1, a2, a3, a4);
+    }
+
+    Object invoke6(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5) throws Throwable {
+        return (Object) entryPoint.invokeExact(a0, a1, a2, a3, a4, a5);
+    }
+
+    // Writes the generic entry points, which unbox and cast their arguments and then call the owner's create method
+    static void writeEntryPoints(ClassVisitor writer, String owner, MethodType type) {
+        var createDescriptor = type.descriptorString();
+        var parameters = type.parameterArray();
+
+        var spread = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, INVOKE, MethodType.methodType(Object.class, Object[].class).descriptorString(), null, null);
+        spread.visitCode();
+        for (int i = 0; i < parameters.length; i++) {
+            spread.visitVarInsn(Opcodes.ALOAD, 0);
+            spread.visitLdcInsn(i);
+            spread.visitInsn(Opcodes.AALOAD);
+            convert(spread, parameters[i]);
         }
-        implementation.visitInvokeDynamicInsn(
-            "apply",
-            targetType.descriptorString(),
-            new Handle(
-                Opcodes.H_INVOKESTATIC,
-                Type.getInternalName(FastInvoker.class),
-                "invokeHandle",
-                MethodType.methodType(CallSite.class, MethodHandles.Lookup.class, String.class, MethodType.class).descriptorString(),
-                true
-            )
-        );
-        implementation.visitInsn(Opcodes.ARETURN);
-        implementation.visitMaxs(0, 0);
-        implementation.visitEnd();
-
-        var handleImplementation = writer.visitMethod(
-            Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
-            "handle",
-            Type.getMethodDescriptor(Type.getType(MethodHandle.class)),
-            null,
-            null
-        );
-        handleImplementation.visitCode();
-        handleImplementation.visitLdcInsn(new ConstantDynamic(
-            "_",
-            MethodHandle.class.descriptorString(),
-            new Handle(
-                Opcodes.H_INVOKESTATIC,
-                Type.getInternalName(MethodHandles.class),
-                "classData",
-                MethodType.methodType(Object.class, MethodHandles.Lookup.class, String.class, Class.class).descriptorString(),
-                false
-            )
-        ));
-        handleImplementation.visitInsn(Opcodes.ARETURN);
-        handleImplementation.visitMaxs(0, 0);
-        handleImplementation.visitEnd();
-
-        var bytes = writer.toByteArray();
-        try {
-            var lookup = MethodHandles.lookup().defineHiddenClassWithClassData(bytes, handle, true);
-            var ctorHandle = lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class));
-            return (FastInvoker) ctorHandle.invoke();
-        } catch (Throwable e) {
-            throw new RuntimeException(e);
+        spread.visitMethodInsn(Opcodes.INVOKESTATIC, owner, CREATE, createDescriptor, false);
+        spread.visitInsn(Opcodes.ARETURN);
+        spread.visitMaxs(0, 0);
+        spread.visitEnd();
+
+        var generic = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, INVOKE, MethodType.genericMethodType(parameters.length).descriptorString(), null, null);
+        generic.visitCode();
+        for (int i = 0; i < parameters.length; i++) {
+            generic.visitVarInsn(Opcodes.ALOAD, i);
+            convert(generic, parameters[i]);
         }
+        generic.visitMethodInsn(Opcodes.INVOKESTATIC, owner, CREATE, createDescriptor, false);
+        generic.visitInsn(Opcodes.ARETURN);
+        generic.visitMaxs(0, 0);
+        generic.visitEnd();
     }
 
-    @SuppressWarnings("unused")
-    static CallSite invokeHandle(MethodHandles.Lookup caller, String name, MethodType factoryType) {
-        try {
-            var classData = MethodHandles.classData(caller, "_", MethodHandle.class);
-            var handle = classData.asType(factoryType);
-            return new ConstantCallSite(handle);
-
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+    private static void convert(MethodVisitor visitor, Class<?> parameter) {
+        if (parameter.isPrimitive()) {
+            var boxed = MethodType.methodType(parameter).wrap().returnType();
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(boxed));
+            visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(boxed), parameter.getName()+"Value", MethodType.methodType(parameter).descriptorString(), false);
+        } else if (parameter != Object.class) {
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameter));
         }
     }
 }
@@ -0,0 +1,181 @@
+package dev.lukebemish.syringe;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Entries are validated against a digest of the bytes of the class they were generated from and its supertypes
+final class GeneratedClassCache {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int MAGIC = 0x53594347;
+    private static final int DIGEST_LENGTH = 32;
+
+    private final Path directory;
+    private final String version;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger evictions = new AtomicInteger();
+
+    record Key(Path file, byte[] digest) {}
+
+    private GeneratedClassCache(Path directory, String version) {
+        this.directory = directory;
+        this.version = version;
+    }
+
+    static @Nullable GeneratedClassCache open(Path root, Class<?> target) {
+        try {
+            // The generator itself is part of the version, so that changes to it never reuse stale bytes
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(GeneratedClassCache.class.getPackage().getImplementationVersion()).getBytes(StandardCharsets.UTF_8));
+            digest.update(Runtime.version().toString().getBytes(StandardCharsets.UTF_8));
+            // Generated classes are named after the class they are defined next to
+            digest.update(target.getName().getBytes(StandardCharsets.UTF_8));
+            for (var generator : new Class<?>[] {InjectedImplementation.class, FastInvoker.class, GeneratedClassCache.class}) {
+                var bytes = classBytes(generator);
+                if (bytes == null) {
+                    return null;
+                }
+                digest.update(bytes);
+            }
+            var version = HexFormat.of().formatHex(digest.digest(), 0, 8);
+            var directory = root.resolve(version);
+            Files.createDirectories(directory);
+            try (var others = Files.list(root)) {
+                for (var other : others.toList()) {
+                    if (!other.getFileName().toString().equals(version) && Files.isDirectory(other)) {
+                        deleteRecursively(other);
+                    }
+                }
+            }
+            return new GeneratedClassCache(directory, version);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            LOGGER.warn("Could not open generated class cache at {}; classes will be generated on every launch", root, e);
+            return null;
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (var children = Files.list(path)) {
+                for (var child : children.toList()) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.deleteIfExists(path);
+    }
+
+    private static byte @Nullable [] classBytes(Class<?> clazz) throws IOException {
+        try (InputStream stream = clazz.getResourceAsStream("/"+clazz.getName().replace('.', '/')+".class")) {
+            return stream == null ? null : stream.readAllBytes();
+        }
+    }
+
+    private static boolean isPlatformClass(Class<?> clazz) {
+        var loader = clazz.getClassLoader();
+        return loader == null || loader == ClassLoader.getPlatformClassLoader();
+    }
+
+    private static boolean digestHierarchy(Class<?> clazz, MessageDigest digest) throws IOException {
+        // Platform classes are covered by the runtime version that is part of the cache version
+        if (isPlatformClass(clazz)) {
+            return true;
+        }
+        var bytes = classBytes(clazz);
+        if (bytes == null) {
+            return false;
+        }
+        digest.update(clazz.getName().getBytes(StandardCharsets.UTF_8));
+        digest.update(bytes);
+        var superClazz = clazz.getSuperclass();
+        if (superClazz != null && !digestHierarchy(superClazz, digest)) {
+            return false;
+        }
+        for (var interfaceClazz : clazz.getInterfaces()) {
+            if (!digestHierarchy(interfaceClazz, digest)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable Key key(Class<?> clazz, String kind) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(kind.getBytes(StandardCharsets.UTF_8));
+            if (!digestHierarchy(clazz, digest)) {
+                return null;
+            }
+            var fileName = clazz.getName().replaceAll("[^A-Za-z0-9._$-]", "_")+"."+kind;
+            return new Key(directory.resolve(fileName), digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    @Nullable ByteBuffer load(Key key) {
+        try (var channel = FileChannel.open(key.file(), StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            var digest = new byte[DIGEST_LENGTH];
+            if (buffer.remaining() >= Integer.BYTES + DIGEST_LENGTH && buffer.getInt() == MAGIC) {
+                buffer.get(digest);
+                if (Arrays.equals(digest, key.digest())) {
+                    hits.incrementAndGet();
+                    return buffer.slice();
+                }
+            }
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException e) {
+            LOGGER.debug("Could not read generated class cache entry {}", key.file(), e);
+        }
+        evict(key);
+        misses.incrementAndGet();
+        return null;
+    }
+
+    void evict(Key key) {
+        try {
+            if (Files.deleteIfExists(key.file())) {
+                evictions.incrementAndGet();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not evict generated class cache entry {}", key.file(), e);
+        }
+    }
+
+    void store(Key key, byte[] payload) {
+        try {
+            var temporary = Files.createTempFile(directory, key.file().getFileName().toString(), ".tmp");
+            var contents = ByteBuffer.allocate(Integer.BYTES + DIGEST_LENGTH + payload.length).putInt(MAGIC).put(key.digest()).put(payload);
+            Files.write(temporary, contents.array());
+            Files.move(temporary, key.file(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.debug("Could not write generated class cache entry {}", key.file(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "generated class cache "+version+": "+hits.get()+" hits, "+misses.get()+" misses, "+evictions.get()+" stale entries evicted";
+    }
+}
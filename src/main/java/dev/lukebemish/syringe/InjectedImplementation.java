@@ -2,30 +2,169 @@
 
 import dev.lukebemish.syringe.annotations.Inject;
 import dev.lukebemish.syringe.annotations.Label;
-import net.neoforged.bus.api.SubscribeEvent;
+import org.jspecify.annotations.Nullable;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.AccessFlag;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.SequencedMap;
-import java.util.function.Function;
+import java.util.TreeMap;
+
+record InjectedImplementation(FastInvoker constructor, List<EvaluatedType> injectedServices, List<Instantiation> injectedInstances, List<Primitive> injectedPrimitives, int maxManualParameters) {
+    // Must match the names used by the annotation processor
+    private static final String PRECOMPILED_FACTORY_SUFFIX = "$SyringeFactory";
+    private static final String PRECOMPILED_METADATA = "$syringe_metadata";
 
-record InjectedImplementation(FastInvoker constructor, List<EvaluatedType> injectedServices, List<Instantiation> injectedInstances, int maxManualParameters) {
     record Instantiation(EvaluatedType type, Object[] args) {}
 
+    // A primitive value bound by name, passed to the constructor unboxed and stored in a final field
+    record Primitive(Class<?> type, String name, String getter) {}
+
+    private static final List<Class<?>> PRIMITIVE_TYPES = List.of(int.class, long.class, double.class, boolean.class);
+
     private record InjectedMethod(String name, Class<?> erased, EvaluatedType specific, boolean isPublic) {}
     private record ImplementedMethod(String name, Class<?> erased, EvaluatedType specific, boolean isPublic, Object[] args) {}
+    private record PrimitiveMethod(String name, Class<?> type, String key, boolean isPublic) {}
+
+    // Everything needed to define an implementation; this is what the generated class cache stores
+    private record Generated(byte @Nullable [] bytes, MethodType constructorType, List<EvaluatedType> injectedServices, List<Instantiation> injectedInstances, List<Primitive> injectedPrimitives, int maxManualParameters) {
+        InjectedImplementation define(Class<?> clazz, boolean fromCache) {
+            try {
+                if (bytes == null) {
+                    var ctorHandle = MethodHandles.publicLookup().findConstructor(clazz, constructorType);
+                    return new InjectedImplementation(FastInvoker.create(ctorHandle), injectedServices, injectedInstances, injectedPrimitives, maxManualParameters);
+                }
+                var event = new SyringeEvents.ClassDefinition();
+                event.begin();
+                var implementationLookup = Bootstrap.ATTACHMENT_TARGET.defineHiddenClass(bytes, false);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.injectedType = clazz;
+                    event.size = bytes.length;
+                    event.fromCache = fromCache;
+                    event.commit();
+                }
+                var report = StartupReport.current();
+                if (report != null) {
+                    report.recordHiddenClass();
+                }
+                var invoker = FastInvoker.create(implementationLookup, implementationLookup.lookupClass(), constructorType.changeReturnType(clazz));
+                return new InjectedImplementation(invoker, injectedServices, injectedInstances, injectedPrimitives, maxManualParameters);
+            } catch (IllegalAccessException | NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        byte @Nullable [] write() {
+            var output = new ByteArrayOutputStream();
+            try (var data = new DataOutputStream(output)) {
+                data.writeInt(maxManualParameters);
+                writeString(data, constructorType.descriptorString());
+                data.writeInt(injectedServices.size());
+                for (var type : injectedServices) {
+                    writeType(data, type);
+                }
+                data.writeInt(injectedInstances.size());
+                for (var instantiation : injectedInstances) {
+                    writeType(data, instantiation.type());
+                    data.writeInt(instantiation.args().length);
+                    for (var arg : instantiation.args()) {
+                        if (!(arg instanceof String string)) {
+                            return null;
+                        }
+                        writeString(data, string);
+                    }
+                }
+                data.writeInt(injectedPrimitives.size());
+                for (var primitive : injectedPrimitives) {
+                    writeString(data, primitive.type().descriptorString());
+                    writeString(data, primitive.name());
+                    writeString(data, primitive.getter());
+                }
+                data.writeInt(bytes == null ? -1 : bytes.length);
+                if (bytes != null) {
+                    data.write(bytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return output.toByteArray();
+        }
+
+        static Generated read(ByteBuffer buffer, @Nullable ClassLoader loader) {
+            var maxManualParameters = buffer.getInt();
+            var constructorType = MethodType.fromMethodDescriptorString(readString(buffer), loader);
+            var injectedServices = new ArrayList<EvaluatedType>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                injectedServices.add(readType(buffer, loader));
+            }
+            var injectedInstances = new ArrayList<Instantiation>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                var type = readType(buffer, loader);
+                var args = new Object[buffer.getInt()];
+                for (int j = 0; j < args.length; j++) {
+                    args[j] = readString(buffer);
+                }
+                injectedInstances.add(new Instantiation(type, args));
+            }
+            var injectedPrimitives = new ArrayList<Primitive>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                var type = MethodType.fromMethodDescriptorString("()"+readString(buffer), loader).returnType();
+                injectedPrimitives.add(new Primitive(type, readString(buffer), readString(buffer)));
+            }
+            var length = buffer.getInt();
+            byte[] bytes = null;
+            if (length >= 0) {
+                bytes = new byte[length];
+                buffer.get(bytes);
+            }
+            return new Generated(bytes, constructorType, injectedServices, injectedInstances, injectedPrimitives, maxManualParameters);
+        }
+
+        private static void writeString(DataOutputStream data, String string) throws IOException {
+            var bytes = string.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+
+        private static String readString(ByteBuffer buffer) {
+            var bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static void writeType(DataOutputStream data, EvaluatedType type) throws IOException {
+            writeString(data, type.rawType().descriptorString());
+            data.writeInt(type.typeParameters().size());
+            for (var parameter : type.typeParameters()) {
+                writeType(data, parameter);
+            }
+        }
+
+        private static EvaluatedType readType(ByteBuffer buffer, @Nullable ClassLoader loader) {
+            var rawType = MethodType.fromMethodDescriptorString("()"+readString(buffer), loader).returnType();
+            var typeParameters = new ArrayList<EvaluatedType>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                typeParameters.add(readType(buffer, loader));
+            }
+            return EvaluatedType.of(rawType, typeParameters);
+        }
+    }
 
     public static void collectMethods(Class<?> actual, SequencedMap<String, Method> methods) {
         for (var method : actual.getDeclaredMethods()) {
@@ -52,7 +191,7 @@ public static void collectMethods(Class<?> actual, SequencedMap<String, Method>
         }
     }
 
-    private static void collectInjectedMethods(Class<?> actual, SequencedMap<String, InjectedMethod> methods, SequencedMap<String, ImplementedMethod> implementedMethods) {
+    private static void collectInjectedMethods(Class<?> actual, SequencedMap<String, InjectedMethod> methods, SequencedMap<String, ImplementedMethod> implementedMethods, SequencedMap<String, PrimitiveMethod> primitiveMethods) {
         var methodMap = new LinkedHashMap<String, Method>();
         collectMethods(actual, methodMap);
         for (var method : methodMap.values()) {
@@ -70,9 +209,23 @@ private static void collectInjectedMethods(Class<?> actual, SequencedMap<String,
                 var name = method.getName();
                 var generic = method.getReturnType();
                 if (generic.isPrimitive()) {
-                    throw new RuntimeException("Cannot inject primitive types: "+formatMethod(method));
+                    if (!PRIMITIVE_TYPES.contains(generic)) {
+                        throw new RuntimeException("Injected primitive getter must return int, long, double or boolean: "+formatMethod(method));
+                    }
+                    var existing = primitiveMethods.get(name);
+                    if (methods.containsKey(name) || implementedMethods.containsKey(name) || (existing != null && existing.type() != generic)) {
+                        throw new RuntimeException("Duplicate injected getter with differing types: "+formatMethod(method));
+                    }
+                    // Named by label, if present, so that getters with different names can share a value
+                    var label = method.getAnnotation(Label.class);
+                    var key = label == null ? name : label.value();
+                    primitiveMethods.putIfAbsent(name, new PrimitiveMethod(name, generic, key, (modifier & Modifier.PUBLIC) != 0));
+                    continue;
                 }
                 var specific = EvaluatedType.of(method.getGenericReturnType());
+                if (primitiveMethods.containsKey(name)) {
+                    throw new RuntimeException("Duplicate injected getter with differing types: "+formatMethod(method));
+                }
                 if (methods.containsKey(name)) {
                     var existing = methods.get(name);
                     if (!existing.specific().equals(specific)) {
@@ -97,7 +250,11 @@ private static void collectInjectedMethods(Class<?> actual, SequencedMap<String,
                 var name = method.getName();
                 var generic = method.getReturnType();
                 if (generic.isPrimitive()) {
-                    throw new RuntimeException("Cannot inject primitive types: "+formatMethod(method));
+                    var existing = primitiveMethods.get(name);
+                    if (existing != null && existing.type() == generic) {
+                        continue;
+                    }
+                    throw new RuntimeException("Abstract getter returning a primitive type must be annotated with @Inject: "+formatMethod(method));
                 }
                 var specific = EvaluatedType.of(method.getGenericReturnType());
 
@@ -130,87 +287,47 @@ private static String formatMethod(Method method) {
         return method.getName()+MethodType.methodType(method.getReturnType(), method.getParameterTypes()).descriptorString()+" in "+method.getDeclaringClass();
     }
 
-    static <T> Function<T, ?> wrap(Class<T> initialClazz) {
-        var clazz = unimplement(initialClazz);
-
-        var writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
-        var name = (Bootstrap.ATTACHMENT_TARGET_NAME+"$Wrapped").replace('.', '/');
-        writer.visit(Opcodes.V21, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, name, null, Type.getInternalName(Object.class), null);
-        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "delegate", clazz.descriptorString(), null, null).visitEnd();
-
-        for (var method : collectMethodsToMirror(clazz)) {
-            var methodImpl = writer.visitMethod(
-                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
-                method.getName(),
-                MethodType.methodType(method.getReturnType(), method.getParameterTypes()).descriptorString(),
-                null, // does this matter?
-                Arrays.stream(method.getExceptionTypes()).map(Type::getInternalName).toArray(String[]::new)
-            );
-            // We currently only keep `@SubscribeEvent`
-            if (method.isAnnotationPresent(SubscribeEvent.class)) {
-                methodImpl.visitAnnotation(SubscribeEvent.class.descriptorString(), true).visitEnd();
-            }
-            methodImpl.visitCode();
-            methodImpl.visitVarInsn(Opcodes.ALOAD, 0);
-            methodImpl.visitFieldInsn(Opcodes.GETFIELD, name, "delegate", clazz.descriptorString());
-            int index = 1;
-            for (int i = 0; i < method.getParameterCount(); i++) {
-                var type = Type.getType(method.getParameterTypes()[i]);
-                var opcode = type.getOpcode(Opcodes.ILOAD);
-                methodImpl.visitVarInsn(opcode, index);
-                index += type.getSize();
-            }
-            methodImpl.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(clazz), method.getName(), MethodType.methodType(method.getReturnType(), method.getParameterTypes()).descriptorString(), false);
-            var returnType = Type.getType(method.getReturnType());
-            methodImpl.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
-            methodImpl.visitMaxs(0, 0);
-            methodImpl.visitEnd();
+    // The processor writes out everything that would otherwise be collected here, so precompiled types need neither
+    // reflection nor a hidden class
+    private static @Nullable InjectedImplementation precompiled(Class<?> clazz) {
+        Class<?> factoryClass;
+        try {
+            factoryClass = Class.forName(clazz.getName()+PRECOMPILED_FACTORY_SUFFIX, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
         }
-
-        var ctorImpl = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", MethodType.methodType(void.class, clazz).descriptorString(), null, null);
-        ctorImpl.visitCode();
-        ctorImpl.visitVarInsn(Opcodes.ALOAD, 0);
-        ctorImpl.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
-
-        ctorImpl.visitVarInsn(Opcodes.ALOAD, 0);
-        ctorImpl.visitVarInsn(Opcodes.ALOAD, 1);
-        ctorImpl.visitFieldInsn(Opcodes.PUTFIELD, name, "delegate", clazz.descriptorString());
-        ctorImpl.visitInsn(Opcodes.RETURN);
-        ctorImpl.visitMaxs(0, 0);
-        ctorImpl.visitEnd();
-
-        writer.visitEnd();
-        var bytes = writer.toByteArray();
         try {
-            var implementationLookup = Bootstrap.ATTACHMENT_TARGET.defineHiddenClass(bytes, false);
-            var ctorHandle = implementationLookup.findConstructor(implementationLookup.lookupClass(), MethodType.methodType(void.class, clazz));
-            return t -> {
-                try {
-                    return ctorHandle.invoke((T) t);
-                } catch (Throwable e) {
-                    throw new RuntimeException(e);
-                }
-            };
-        } catch (IllegalAccessException | NoSuchMethodException e) {
-            throw new RuntimeException(e);
+            var lookup = MethodHandles.publicLookup();
+            var metadata = (String) lookup.findStatic(factoryClass, PRECOMPILED_METADATA, MethodType.methodType(String.class)).invokeExact();
+            var generated = Generated.read(ByteBuffer.wrap(metadata.getBytes(StandardCharsets.ISO_8859_1)), clazz.getClassLoader());
+            var invoker = FastInvoker.create(lookup, factoryClass, generated.constructorType().changeReturnType(clazz));
+            return new InjectedImplementation(invoker, generated.injectedServices(), generated.injectedInstances(), generated.injectedPrimitives(), generated.maxManualParameters());
+        } catch (Throwable e) {
+            // For instance, a factory generated by an older processor; fall back to generating one at runtime
+            return null;
         }
     }
 
-    private static Class<?> unimplement(Class<?> clazz) {
-        if (!clazz.isHidden()) {
-            return clazz;
-        }
-        try {
-            var method = clazz.getMethod("$syringe_original_type");
-            return (Class<?>) method.invoke(null);
-        } catch (NoSuchMethodException e) {
-            return clazz;
-        } catch (InvocationTargetException | IllegalAccessException e) {
-            throw new RuntimeException(e);
+    static InjectedImplementation implement(Class<?> clazz) {
+        var report = StartupReport.current();
+        if (SyringeMetrics.ENABLED || report != null) {
+            var start = System.nanoTime();
+            try {
+                return implementUntimed(clazz);
+            } finally {
+                var nanos = System.nanoTime() - start;
+                if (SyringeMetrics.ENABLED) {
+                    SyringeMetrics.IMPLEMENTATIONS.record(nanos);
+                }
+                if (report != null) {
+                    report.recordGeneration(nanos);
+                }
+            }
         }
+        return implementUntimed(clazz);
     }
 
-    static InjectedImplementation implement(Class<?> clazz) {
+    private static InjectedImplementation implementUntimed(Class<?> clazz) {
         if (clazz.isHidden()) {
             throw new IllegalArgumentException("Class to instantiate must not be hidden: "+clazz);
         }
@@ -218,6 +335,36 @@ static InjectedImplementation implement(Class<?> clazz) {
             throw new IllegalArgumentException("Class to instantiate must be public: "+clazz);
         }
 
+        var precompiled = precompiled(clazz);
+        if (precompiled != null) {
+            return precompiled;
+        }
+
+        var cache = Bootstrap.CACHE;
+        var key = cache == null ? null : cache.key(clazz, "implementation");
+        if (key != null) {
+            var payload = cache.load(key);
+            if (payload != null) {
+                try {
+                    return Generated.read(payload, clazz.getClassLoader()).define(clazz, true);
+                } catch (RuntimeException e) {
+                    // For instance, if a type the entry refers to no longer exists
+                    cache.evict(key);
+                }
+            }
+        }
+
+        var generated = generate(clazz);
+        if (key != null) {
+            var payload = generated.write();
+            if (payload != null) {
+                cache.store(key, payload);
+            }
+        }
+        return generated.define(clazz, false);
+    }
+
+    private static Generated generate(Class<?> clazz) {
         List<EvaluatedType> injectedTypes = new ArrayList<>();
         List<Instantiation> instantiations = new ArrayList<>();
         List<Class<?>> ctorTypes = new ArrayList<>();
@@ -253,46 +400,48 @@ static InjectedImplementation implement(Class<?> clazz) {
             targetCtorArgs.add(erased);
         }
 
-        var methods = new LinkedHashMap<String, InjectedMethod>();
-        var implementedMethods = new LinkedHashMap<String, ImplementedMethod>();
-        collectInjectedMethods(clazz, methods, implementedMethods);
+        // Sorted by name so that the constructor layout is stable, and matches what the processor generates
+        var methods = new TreeMap<String, InjectedMethod>();
+        var implementedMethods = new TreeMap<String, ImplementedMethod>();
+        var primitiveMethods = new TreeMap<String, PrimitiveMethod>();
+        collectInjectedMethods(clazz, methods, implementedMethods, primitiveMethods);
 
-        if (methods.isEmpty() && (targetCtor.getModifiers() & Modifier.PUBLIC) != 0 && (clazz.getModifiers() & Modifier.ABSTRACT) == 0) {
-            try {
-                var ctorHandle = MethodHandles.publicLookup().unreflectConstructor(targetCtor);
-                return new InjectedImplementation(FastInvoker.create(ctorHandle), injectedTypes, List.of(), targetCtorArgs.size());
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
+        if (methods.isEmpty() && primitiveMethods.isEmpty() && (targetCtor.getModifiers() & Modifier.PUBLIC) != 0 && (clazz.getModifiers() & Modifier.ABSTRACT) == 0) {
+            return new Generated(null, MethodType.methodType(void.class, ctorTypes), injectedTypes, List.of(), List.of(), targetCtorArgs.size());
         }
 
         if ((clazz.getModifiers() & Modifier.FINAL) != 0) {
             throw new RuntimeException("Class to instantiate with a protected constructor or abstract methods may not be final: "+clazz);
         }
 
+        for (var method : methods.values()) {
+            injectedTypes.add(EvaluatedType.of(Provider.class, List.of(method.specific())));
+            ctorTypes.add(Provider.class);
+        }
+        for (var method : implementedMethods.values()) {
+            instantiations.add(new Instantiation(method.specific(), method.args()));
+            ctorTypes.add(method.erased());
+        }
+        List<Primitive> primitives = new ArrayList<>();
+        for (var method : primitiveMethods.values()) {
+            primitives.add(new Primitive(method.type(), method.key(), method.name()));
+            ctorTypes.add(method.type());
+        }
+
+        var ctorType = MethodType.methodType(void.class, ctorTypes);
         var writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
-        var name = (Bootstrap.ATTACHMENT_TARGET_NAME+"$"+clazz.getSimpleName()).replace('.', '/');
+        var name = (Bootstrap.ATTACHMENT_TARGET.lookupClass().getName()+"$"+clazz.getSimpleName()).replace('.', '/');
         writer.visit(Opcodes.V21, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, name, null, Type.getInternalName(clazz), null);
 
-        var implementationMethod = writer.visitMethod(
-            Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC,
-            "$syringe_original_type",
-            MethodType.methodType(Class.class).descriptorString(),
-            null,
-            null
-        );
-        implementationMethod.visitCode();
-        implementationMethod.visitLdcInsn(Type.getType(clazz));
-        implementationMethod.visitInsn(Opcodes.ARETURN);
-        implementationMethod.visitMaxs(0, 0);
-        implementationMethod.visitEnd();
-
+        // Services already present at construction are also stored directly, so the getter does not go through the
+        // provider, and the JIT can treat the value as constant
         for (var method : methods.values()) {
             var fieldName = "$syringe_injected_field$"+method.name;
+            var valueFieldName = "$syringe_injected_value$"+method.name;
             var field = writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, fieldName, Provider.class.descriptorString(), null, null);
             field.visitEnd();
-            injectedTypes.add(new EvaluatedType(Provider.class, List.of(method.specific())));
-            ctorTypes.add(Provider.class);
+            var valueField = writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, valueFieldName, method.erased().descriptorString(), null, null);
+            valueField.visitEnd();
             var methodImpl = writer.visitMethod(
                 (method.isPublic()? Opcodes.ACC_PUBLIC : Opcodes.ACC_PROTECTED) | Opcodes.ACC_FINAL,
                 method.name,
@@ -301,6 +450,14 @@ static InjectedImplementation implement(Class<?> clazz) {
                 null
             );
             methodImpl.visitCode();
+            var deferred = new org.objectweb.asm.Label();
+            methodImpl.visitVarInsn(Opcodes.ALOAD, 0);
+            methodImpl.visitFieldInsn(Opcodes.GETFIELD, name, valueFieldName, method.erased().descriptorString());
+            methodImpl.visitJumpInsn(Opcodes.IFNULL, deferred);
+            methodImpl.visitVarInsn(Opcodes.ALOAD, 0);
+            methodImpl.visitFieldInsn(Opcodes.GETFIELD, name, valueFieldName, method.erased().descriptorString());
+            methodImpl.visitInsn(Opcodes.ARETURN);
+            methodImpl.visitLabel(deferred);
             methodImpl.visitVarInsn(Opcodes.ALOAD, 0);
             methodImpl.visitFieldInsn(Opcodes.GETFIELD, name, fieldName, Provider.class.descriptorString());
             methodImpl.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Provider.class), "get", MethodType.methodType(Object.class).descriptorString(), true);
@@ -314,8 +471,6 @@ static InjectedImplementation implement(Class<?> clazz) {
             var fieldName = "$syringe_injected_field$"+method.name;
             var field = writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, fieldName, method.erased.descriptorString(), null, null);
             field.visitEnd();
-            instantiations.add(new Instantiation(method.specific(), method.args()));
-            ctorTypes.add(method.erased());
             var methodImpl = writer.visitMethod(
                 (method.isPublic()? Opcodes.ACC_PUBLIC : Opcodes.ACC_PROTECTED) | Opcodes.ACC_FINAL,
                 method.name,
@@ -331,7 +486,25 @@ static InjectedImplementation implement(Class<?> clazz) {
             methodImpl.visitEnd();
         }
 
-        var ctorType = MethodType.methodType(void.class, ctorTypes);
+        for (var method : primitiveMethods.values()) {
+            var fieldName = "$syringe_injected_field$"+method.name;
+            var type = Type.getType(method.type());
+            var field = writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, fieldName, type.getDescriptor(), null, null);
+            field.visitEnd();
+            var methodImpl = writer.visitMethod(
+                (method.isPublic()? Opcodes.ACC_PUBLIC : Opcodes.ACC_PROTECTED) | Opcodes.ACC_FINAL,
+                method.name,
+                "()"+type.getDescriptor(),
+                null,
+                null
+            );
+            methodImpl.visitCode();
+            methodImpl.visitVarInsn(Opcodes.ALOAD, 0);
+            methodImpl.visitFieldInsn(Opcodes.GETFIELD, name, fieldName, type.getDescriptor());
+            methodImpl.visitInsn(type.getOpcode(Opcodes.IRETURN));
+            methodImpl.visitMaxs(0, 0);
+            methodImpl.visitEnd();
+        }
 
         var ctor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", ctorType.descriptorString(), null, null);
         ctor.visitCode();
@@ -341,6 +514,16 @@ static InjectedImplementation implement(Class<?> clazz) {
             index += type.getSize();
         }
         for (var method : methods.values()) {
+            var deferred = new org.objectweb.asm.Label();
+            ctor.visitVarInsn(Opcodes.ALOAD, index);
+            ctor.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Provider.class), "isPresent", MethodType.methodType(boolean.class).descriptorString(), true);
+            ctor.visitJumpInsn(Opcodes.IFEQ, deferred);
+            ctor.visitVarInsn(Opcodes.ALOAD, 0);
+            ctor.visitVarInsn(Opcodes.ALOAD, index);
+            ctor.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Provider.class), "get", MethodType.methodType(Object.class).descriptorString(), true);
+            ctor.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(method.erased()));
+            ctor.visitFieldInsn(Opcodes.PUTFIELD, name, "$syringe_injected_value$"+method.name, method.erased().descriptorString());
+            ctor.visitLabel(deferred);
             ctor.visitVarInsn(Opcodes.ALOAD, 0);
             ctor.visitVarInsn(Opcodes.ALOAD, index);
             ctor.visitFieldInsn(Opcodes.PUTFIELD, name, "$syringe_injected_field$"+method.name, Provider.class.descriptorString());
@@ -352,6 +535,13 @@ static InjectedImplementation implement(Class<?> clazz) {
             ctor.visitFieldInsn(Opcodes.PUTFIELD, name, "$syringe_injected_field$"+method.name, method.erased.descriptorString());
             index++;
         }
+        for (var method : primitiveMethods.values()) {
+            var type = Type.getType(method.type());
+            ctor.visitVarInsn(Opcodes.ALOAD, 0);
+            ctor.visitVarInsn(type.getOpcode(Opcodes.ILOAD), index);
+            ctor.visitFieldInsn(Opcodes.PUTFIELD, name, "$syringe_injected_field$"+method.name, type.getDescriptor());
+            index += type.getSize();
+        }
         ctor.visitVarInsn(Opcodes.ALOAD, 0);
         index = 1;
         for (var argType : targetCtorArgs) {
@@ -365,26 +555,25 @@ static InjectedImplementation implement(Class<?> clazz) {
         ctor.visitMaxs(0, 0);
         ctor.visitEnd();
 
-        writer.visitEnd();
-
-        var bytes = writer.toByteArray();
-        try {
-            var implementationLookup = Bootstrap.ATTACHMENT_TARGET.defineHiddenClass(bytes, false);
-            var ctorHandle = implementationLookup.findConstructor(implementationLookup.lookupClass(), ctorType);
-            return new InjectedImplementation(FastInvoker.create(ctorHandle), injectedTypes, instantiations, targetCtorArgs.size());
-        } catch (IllegalAccessException | NoSuchMethodException e) {
-            throw new RuntimeException(e);
+        // The class is its own invoker, through static entry points, so no further class is defined for it
+        var factory = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, FastInvoker.CREATE, ctorType.changeReturnType(clazz).descriptorString(), null, null);
+        factory.visitCode();
+        factory.visitTypeInsn(Opcodes.NEW, name);
+        factory.visitInsn(Opcodes.DUP);
+        index = 0;
+        for (var argType : ctorTypes) {
+            var type = Type.getType(argType);
+            factory.visitVarInsn(type.getOpcode(Opcodes.ILOAD), index);
+            index += type.getSize();
         }
-    }
+        factory.visitMethodInsn(Opcodes.INVOKESPECIAL, name, "<init>", ctorType.descriptorString(), false);
+        factory.visitInsn(Opcodes.ARETURN);
+        factory.visitMaxs(0, 0);
+        factory.visitEnd();
+        FastInvoker.writeEntryPoints(writer, name, ctorType.changeReturnType(clazz));
 
-    private static List<Method> collectMethodsToMirror(Class<?> clazz) {
-        List<Method> methods = new ArrayList<>();
-        for (var method : clazz.getMethods()) {
-            // We only mirror public `@SubscribeEvent` methods
-            if (!method.accessFlags().contains(AccessFlag.STATIC) && method.isAnnotationPresent(SubscribeEvent.class)) {
-                methods.add(method);
-            }
-        }
-        return methods;
+        writer.visitEnd();
+
+        return new Generated(writer.toByteArray(), ctorType, injectedTypes, instantiations, primitives, targetCtorArgs.size());
     }
 }
@@ -2,13 +2,24 @@
 
 import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public class LazyProvider<T> implements Provider<T> {
+    // The provider each thread is waiting on, so that threads waiting on each other's instances can be detected rather
+    // than deadlocking. Guarded by itself, so that of two threads forming a cycle, the later one to wait sees it.
+    private static final Map<Thread, LazyProvider<?>> WAITING = new HashMap<>();
+
     private final Supplier<T> supplier;
     private final EvaluatedType type;
     private volatile @Nullable T value;
+    // Set, under this, by the thread constructing the instance; it does not hold the lock while doing so, so that other
+    // lazy instances it depends on may be constructed concurrently
+    private volatile @Nullable Thread initializer;
 
     public LazyProvider(Supplier<T> supplier, EvaluatedType type) {
         this.supplier = supplier;
@@ -17,20 +28,92 @@ public LazyProvider(Supplier<T> supplier, EvaluatedType type) {
 
     @Override
     public T get() {
-        if (value == null) {
+        var existing = value;
+        if (existing != null) {
+            return existing;
+        }
+        if (!claim()) {
+            return Objects.requireNonNull(value);
+        }
+        var start = SyringeMetrics.ENABLED ? System.nanoTime() : 0;
+        T t;
+        try {
+            t = Objects.requireNonNull(supplier.get(), "Supplier in lazy provider of type "+type+" returned null");
+        } catch (Throwable e) {
             synchronized (this) {
-                if (value == null) {
-                    T t = Objects.requireNonNull(supplier.get(), "Supplier in lazy provider of type "+type+" returned null");
-                    value = t;
-                    return t;
+                initializer = null;
+                notifyAll();
+            }
+            throw e;
+        }
+        if (SyringeMetrics.ENABLED) {
+            SyringeMetrics.LAZY_INITIALIZATIONS.record(System.nanoTime() - start);
+        }
+        synchronized (this) {
+            value = t;
+            initializer = null;
+            notifyAll();
+        }
+        return t;
+    }
+
+    // Returns whether the current thread should construct the instance, or else waits for another thread to
+    private synchronized boolean claim() {
+        var current = Thread.currentThread();
+        boolean interrupted = false;
+        try {
+            while (value == null) {
+                var owner = initializer;
+                if (owner == null) {
+                    initializer = current;
+                    return true;
                 }
+                if (owner == current) {
+                    throw new IllegalStateException("Instance of type "+type+" depends on itself, and was requested while it was being created");
+                }
+                synchronized (WAITING) {
+                    WAITING.put(current, this);
+                    var cycle = cycle(current);
+                    if (cycle != null) {
+                        WAITING.remove(current);
+                        throw new IllegalStateException("Instance of type "+type+" depends on itself through "+cycle+", and was requested while it was being created on another thread");
+                    }
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } finally {
+                    synchronized (WAITING) {
+                        WAITING.remove(current);
+                    }
+                }
+            }
+            return false;
+        } finally {
+            if (interrupted) {
+                current.interrupt();
+            }
+        }
+    }
+
+    // Follows the threads constructing the instances that other threads wait on; guarded by WAITING
+    private @Nullable String cycle(Thread current) {
+        var path = new ArrayList<LazyProvider<?>>();
+        LazyProvider<?> provider = this;
+        while (provider != null && !path.contains(provider)) {
+            path.add(provider);
+            var owner = provider.initializer;
+            if (owner == current) {
+                return path.stream().map(p -> p.type.toString()).collect(Collectors.joining(" -> "));
             }
+            provider = owner == null ? null : WAITING.get(owner);
         }
-        return value;
+        return null;
     }
 
     @Override
     public boolean isPresent() {
-        return true;
+        return value != null;
     }
 }
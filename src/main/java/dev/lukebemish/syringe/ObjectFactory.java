@@ -1,8 +1,25 @@
 package dev.lukebemish.syringe;
 
+import org.jspecify.annotations.Nullable;
+
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Creates instances with injected services and instantiators. Once {@link #newObjectFactory(Configuration)} has
+ * returned, the new factory's bindings are frozen, and {@link #newInstance}, {@link #findService} and
+ * {@link #newObjectFactory} may be called concurrently from any thread without locking. The exception is a factory
+ * created from one that is itself still being created, as by a service's constructor: it also sees the bindings its
+ * parent gains, until the parent is complete. A {@link Configuration} is not thread-safe, and must not be modified while
+ * it is being used to create a factory.
+ */
 public interface ObjectFactory {
     <T> T newInstance(Class<T> clazz, Object... args);
 
@@ -12,6 +29,13 @@ public interface ObjectFactory {
 
     <T> T findService(Class<T> clazz);
 
+    /**
+     * Start constructing this factory's lazy services in the background, on the executor given to
+     * {@link Configuration#warmUpLazyServices(Executor)}. Only the first call has any effect; mods' factories are warmed
+     * up once the mod has been constructed.
+     */
+    void startWarmUp();
+
     class Configuration {
         private Configuration() {}
 
@@ -20,10 +44,22 @@ private Configuration() {}
         final Map<EvaluatedType, ToCreate<Object>> toCreateServices = new HashMap<>();
         final Map<EvaluatedType, ToCreate<Object>> toCreateServiceTypes = new HashMap<>();
         final Map<EvaluatedType, Provider<?>> providers = new HashMap<>();
+        final Map<EvaluatedType, ToCreate<Object>> toCreateLazyServices = new HashMap<>();
+        final Map<EvaluatedType, ToCreate<Object>> toCreateAsyncServices = new HashMap<>();
 
         final Map<Class<?>, ToCreate<Instantiator<?>>> toCreateInstantiators = new HashMap<>();
         final Map<Class<?>, ToCreate<Instantiator<?>>> toCreateInstantiatorTypes = new HashMap<>();
         final Map<Class<?>, Instantiator<?>> instantiators = new HashMap<>();
+        final Set<Class<?>> scopedTypes = new HashSet<>();
+        // Values are the specialized provider for the type the value is bound as
+        final Map<String, Object> primitives = new HashMap<>();
+        // Keyed by the injected collection type, in contribution order
+        final Map<EvaluatedType, Set<Object>> setContributions = new HashMap<>();
+        final Map<EvaluatedType, Map<Object, Object>> mapContributions = new HashMap<>();
+
+        @Nullable Executor serviceExecutor;
+        @Nullable Executor warmUpExecutor;
+        @Nullable Executor asyncExecutor;
 
         public static Configuration create() {
             return new Configuration();
@@ -45,10 +81,135 @@ public <T> void bindService(Class<T> clazz) {
             bindService(clazz, clazz);
         }
 
+        /**
+         * Bind a service that is only constructed, once, when it is first requested.
+         */
+        public <T> void bindLazyService(Class<T> clazz, Class<? extends T> implementation, Object... args) {
+            toCreateLazyServices.put(EvaluatedType.of(clazz), new ToCreate<>(implementation, args));
+        }
+
+        public <T> void bindLazyService(Class<T> clazz) {
+            bindLazyService(clazz, clazz);
+        }
+
+        /**
+         * Bind a service that is constructed in the background, starting once the factory is created, and provided by an
+         * {@link AsyncProvider}. Construction waits for any other services it depends on, rather than blocking on them.
+         * Other services of the same factory are constructed before it starts, so must inject {@code AsyncProvider<T>}
+         * rather than the service itself.
+         */
+        public <T> void bindAsyncService(Class<T> clazz, Class<? extends T> implementation, Object... args) {
+            toCreateAsyncServices.put(EvaluatedType.of(clazz), new ToCreate<>(implementation, args));
+        }
+
+        public <T> void bindAsyncService(Class<T> clazz) {
+            bindAsyncService(clazz, clazz);
+        }
+
         public <T> void bindServiceType(Class<T> clazz) {
             bindServiceType(clazz, clazz);
         }
 
+        /**
+         * Construct services created by this configuration on the given executor. Services are always constructed after
+         * those they take as constructor parameters, but may otherwise run in parallel, off the thread creating the
+         * factory.
+         */
+        public void constructServicesWith(Executor executor) {
+            this.serviceExecutor = executor;
+        }
+
+        /**
+         * Once {@link ObjectFactory#startWarmUp()} is called on the created factory, construct its lazy services on the
+         * given executor in the background, so that they are usually ready before they are first requested.
+         */
+        public void warmUpLazyServices(Executor executor) {
+            this.warmUpExecutor = executor;
+        }
+
+        /**
+         * Construct async services created by this configuration on the given executor, instead of on a new virtual
+         * thread each.
+         */
+        public void constructAsyncServicesWith(Executor executor) {
+            this.asyncExecutor = executor;
+        }
+
+        /**
+         * Treat the type as if it were annotated with {@link dev.lukebemish.syringe.annotations.FactoryScope} in the
+         * created factory and its children: each of those factories creates at most one instance of it.
+         */
+        public void scopeToFactory(Class<?> clazz) {
+            scopedTypes.add(clazz);
+        }
+
+        /**
+         * Bind a primitive value, injected into {@link dev.lukebemish.syringe.annotations.Inject} getters of the same
+         * type whose name, or label if they have one, matches the given name. The provider is queried once per instance
+         * created, and the value stored unboxed.
+         */
+        public void bindInt(String name, IntProvider provider) {
+            primitives.put(name, provider);
+        }
+
+        public void bindInt(String name, int value) {
+            bindInt(name, () -> value);
+        }
+
+        public void bindLong(String name, LongProvider provider) {
+            primitives.put(name, provider);
+        }
+
+        public void bindLong(String name, long value) {
+            bindLong(name, () -> value);
+        }
+
+        public void bindDouble(String name, DoubleProvider provider) {
+            primitives.put(name, provider);
+        }
+
+        public void bindDouble(String name, double value) {
+            bindDouble(name, () -> value);
+        }
+
+        public void bindBoolean(String name, BooleanProvider provider) {
+            primitives.put(name, provider);
+        }
+
+        public void bindBoolean(String name, boolean value) {
+            bindBoolean(name, () -> value);
+        }
+
+        /**
+         * Contribute an element to the {@code Set<T>} injected from the created factory and its children. The set holds
+         * the elements contributed by every factory from the root down, in the order they were contributed.
+         * <p>
+         * Contributions are separate from a {@code Set<T>} bound as a service: a service bound in the same configuration
+         * takes precedence over its contributions, but contributing in a child factory replaces a service bound by a
+         * parent, rather than adding to it.
+         */
+        public <T> void contributeToSet(Class<T> elementType, T element) {
+            Objects.requireNonNull(element);
+            setContributions.computeIfAbsent(EvaluatedType.of(Set.class, List.of(EvaluatedType.of(elementType))), k -> new LinkedHashSet<>()).add(element);
+        }
+
+        /**
+         * Contribute an entry to the {@code Map<K, V>} injected from the created factory and its children. The map holds
+         * the entries contributed by every factory from the root down; an entry replaces any with the same key contributed
+         * by a parent factory, but each key may only be contributed once per configuration.
+         * <p>
+         * As with {@link #contributeToSet(Class, Object)}, contributing in a child factory replaces a {@code Map<K, V>}
+         * bound as a service by a parent.
+         */
+        public <K, V> void contributeToMap(Class<K> keyType, Class<V> valueType, K key, V value) {
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(value);
+            var mapType = EvaluatedType.of(Map.class, List.of(EvaluatedType.of(keyType), EvaluatedType.of(valueType)));
+            if (mapContributions.computeIfAbsent(mapType, k -> new LinkedHashMap<>()).putIfAbsent(key, value) != null) {
+                throw new IllegalArgumentException("Key " + key + " has already been contributed to " + mapType);
+            }
+        }
+
         public <T> void bindInstantiator(Class<T> instanceType, Instantiator<T> instantiator) {
             instantiators.put(instanceType, instantiator);
         }
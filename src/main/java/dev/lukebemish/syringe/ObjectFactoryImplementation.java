@@ -1,58 +1,229 @@
 package dev.lukebemish.syringe;
 
+import dev.lukebemish.syringe.annotations.AssistedFactory;
+import dev.lukebemish.syringe.annotations.FactoryScope;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jspecify.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 class ObjectFactoryImplementation implements ObjectFactory {
+    private static final Logger LOGGER = LogManager.getLogger();
     private static final Map<Class<?>, InjectedImplementation> creators = new ConcurrentHashMap<>();
+    private static final MethodHandle SUPPLIER_GET;
+    private static final Executor ASYNC_EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("syringe-async-", 0).factory());
+    private static final ClassValue<Boolean> ANNOTATED_SCOPED = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.isAnnotationPresent(FactoryScope.class);
+        }
+    };
+
+    static {
+        try {
+            SUPPLIER_GET = MethodHandles.publicLookup().findVirtual(Supplier.class, "get", MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
     private final @Nullable ClassLoader classLoader;
     private final @Nullable ObjectFactoryImplementation parent;
+    private final int depth;
+    private final SyringeMetrics.@Nullable FactoryMetrics metrics = SyringeMetrics.ENABLED ? new SyringeMetrics.FactoryMetrics() : null;
 
+    // Bindings owned by this factory, guarded by indexLock. Read elsewhere through the snapshot
+    private final Object indexLock = new Object();
     private final Map<EvaluatedType, Provider<?>> serviceProviders = new HashMap<>();
     private final Map<Class<?>, Provider<Instantiator<?>>> instantiators = new HashMap<>();
-
     private final Map<EvaluatedType, Configuration.ToCreate<Object>> servicesToPropogate = new HashMap<>();
     private final Map<Class<?>, Configuration.ToCreate<Instantiator<?>>> instantiatorsToPropogate = new HashMap<>();
+    private final Set<Class<?>> scopedTypes = new HashSet<>();
+    private final Map<String, Object> primitives = new HashMap<>();
+    private final Map<EvaluatedType, Set<Object>> setContributions = new HashMap<>();
+    private final Map<EvaluatedType, Map<Object, Object>> mapContributions = new HashMap<>();
+
+    // Bindings from this factory and all its parents, flattened so lookups do not depend on hierarchy depth. Replaced
+    // wholesale rather than mutated, so readers on other threads always see a consistent, immutable view.
+    private record Snapshot(
+        Map<EvaluatedType, Provider<?>> services,
+        Map<Class<?>, Provider<Instantiator<?>>> instantiators,
+        Map<EvaluatedType, Configuration.ToCreate<Object>> servicesToPropogate,
+        Map<Class<?>, Configuration.ToCreate<Instantiator<?>>> instantiatorsToPropogate,
+        Set<Class<?>> scopedTypes,
+        Map<String, Object> primitives,
+        Map<EvaluatedType, ArraySet<Object>> sets,
+        Map<EvaluatedType, Map<Object, Object>> maps,
+        Caches caches
+    ) {}
+
+    // Everything derived from a snapshot's bindings as they are used, replaced along with it. Each operation reads the
+    // snapshot once and caches into that snapshot only, so anything it resolved from an older snapshot is never kept.
+    private record Caches(
+        Map<EvaluatedType, Provider<?>> resolvedServices,
+        Map<Class<?>, InstantiationPlan> plans,
+        Map<Class<?>, Object> assistedFactories,
+        Map<EvaluatedType, BoundInstantiator> boundInstantiators
+    ) {
+        Caches() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of(), Map.of(), Set.of(), Map.of(), Map.of(), Map.of(), new Caches());
+
+    // Instances of scoped types; kept across reindexing, as there must never be two of them
+    private final Map<EvaluatedType, LazyProvider<?>> scopedInstances = new ConcurrentHashMap<>();
+
+    // Cached in place of a missing service or instantiator
+    private static final Provider<?> MISSING = new ConstantProvider<>(new Object());
+    private static final BoundInstantiator NO_INSTANTIATOR = new BoundInstantiator(EvaluatedType.of(Object.class), Object.class, args -> null);
+
+    // Children created while this factory is still being configured, which must see bindings added afterward; both
+    // are only changed under indexLock
+    private volatile boolean complete = true;
+    private final List<ObjectFactoryImplementation> dependents = new CopyOnWriteArrayList<>();
+
+    // Submits this factory's lazy services for warm-up; taken by the first call to startWarmUp
+    private final AtomicReference<@Nullable Runnable> warmUp = new AtomicReference<>();
 
     ObjectFactoryImplementation(@Nullable ClassLoader classLoader, @Nullable ObjectFactoryImplementation parent) {
         this.classLoader = classLoader;
         this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
         serviceProviders.put(EvaluatedType.of(ObjectFactory.class), new ConstantProvider<>(this));
+        reindex();
     }
 
-    private @Nullable Provider<?> serviceViaProvider(EvaluatedType type) {
-        var provider = serviceProviders.get(type);
-        if (provider != null) {
-            return provider;
+    // Serialized per factory, and always built from the parent's current snapshot, so that a reindex cascading from the
+    // parent and one made while configuring this factory cannot publish a snapshot built from stale bindings
+    private void reindex() {
+        synchronized (indexLock) {
+            var services = new HashMap<EvaluatedType, Provider<?>>();
+            var instantiators = new HashMap<Class<?>, Provider<Instantiator<?>>>();
+            var scopedTypes = new HashSet<Class<?>>();
+            var primitives = new HashMap<String, Object>();
+            var sets = new HashMap<EvaluatedType, ArraySet<Object>>();
+            var maps = new HashMap<EvaluatedType, Map<Object, Object>>();
+            if (parent != null) {
+                var parentSnapshot = parent.snapshot;
+                services.putAll(parentSnapshot.services());
+                instantiators.putAll(parentSnapshot.instantiators());
+                scopedTypes.addAll(parentSnapshot.scopedTypes());
+                primitives.putAll(parentSnapshot.primitives());
+                sets.putAll(parentSnapshot.sets());
+                maps.putAll(parentSnapshot.maps());
+            }
+            // Collections this factory does not contribute to are the parent's, already among its services
+            for (var entry : this.setContributions.entrySet()) {
+                var inherited = sets.get(entry.getKey());
+                var set = ArraySet.of(inherited == null ? Set.of() : inherited, entry.getValue());
+                sets.put(entry.getKey(), set);
+                services.put(entry.getKey(), new ConstantProvider<>(set));
+            }
+            for (var entry : this.mapContributions.entrySet()) {
+                var entries = new HashMap<>(maps.getOrDefault(entry.getKey(), Map.of()));
+                entries.putAll(entry.getValue());
+                var map = Map.copyOf(entries);
+                maps.put(entry.getKey(), map);
+                services.put(entry.getKey(), new ConstantProvider<>(map));
+            }
+            services.putAll(this.serviceProviders);
+            instantiators.putAll(this.instantiators);
+            scopedTypes.addAll(this.scopedTypes);
+            primitives.putAll(this.primitives);
+            this.snapshot = new Snapshot(
+                Map.copyOf(services),
+                Map.copyOf(instantiators),
+                Map.copyOf(this.servicesToPropogate),
+                Map.copyOf(this.instantiatorsToPropogate),
+                Set.copyOf(scopedTypes),
+                Map.copyOf(primitives),
+                Map.copyOf(sets),
+                Map.copyOf(maps),
+                new Caches()
+            );
         }
-        if (parent != null) {
-            return parent.serviceViaProvider(type);
+        for (var dependent : dependents) {
+            dependent.reindex();
         }
-        return null;
     }
 
-    private @Nullable Object findServiceOfType(EvaluatedType type) {
-        var provider = serviceViaProvider(type);
-        if (provider != null) {
-            return provider.get();
-        }
-        if (type.rawType().equals(Provider.class)) {
-            var providedType = type.typeParameters().getFirst();
-            var providerForActual = serviceViaProvider(providedType);
-            if (providerForActual != null) {
-                return providerForActual;
+    private @Nullable Provider<?> resolveService(EvaluatedType type) {
+        var snapshot = this.snapshot;
+        var resolvedServices = snapshot.caches().resolvedServices();
+        var resolved = resolvedServices.get(type);
+        if (resolved == null) {
+            // Not computeIfAbsent, as resolving a provider type resolves the type it provides
+            resolved = snapshot.services().get(type);
+            if (resolved == null && type.rawType().equals(Provider.class)) {
+                var providerForActual = resolveService(type.typeParameters().getFirst());
+                if (providerForActual != null) {
+                    resolved = new ConstantProvider<>(providerForActual);
+                }
+            } else if (resolved == null && type.rawType().isInterface() && type.rawType().isAnnotationPresent(AssistedFactory.class)) {
+                // Lazy, as the type the factory creates may itself inject the factory
+                resolved = new LazyProvider<>(() -> assistedFactory(type.rawType()), type);
+            } else if (resolved == null && type.rawType().equals(AsyncProvider.class)) {
+                if (resolveService(type.typeParameters().getFirst()) instanceof AsyncProvider<?> asyncProvider) {
+                    resolved = new ConstantProvider<>(asyncProvider);
+                }
+            }
+            var existing = resolvedServices.putIfAbsent(type, resolved == null ? MISSING : resolved);
+            if (existing != null) {
+                resolved = existing;
             }
-            var actual = findServiceOfType(providedType);
-            if (actual != null) {
-                return new ConstantProvider<>(actual);
+        }
+        return resolved == MISSING ? null : resolved;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    SyringeMetrics.@Nullable FactoryMetrics metrics() {
+        return metrics;
+    }
+
+    private static InjectedImplementation creator(Class<?> clazz) {
+        var creator = creators.get(clazz);
+        if (SyringeMetrics.ENABLED) {
+            (creator == null ? SyringeMetrics.CREATOR_MISSES : SyringeMetrics.CREATOR_HITS).increment();
+        }
+        return creator != null ? creator : creators.computeIfAbsent(clazz, InjectedImplementation::implement);
+    }
+
+    // Warms the implementation cache ahead of the class's first instantiation
+    static void pregenerate(Class<?> clazz) {
+        creator(clazz);
+    }
+
+    private @Nullable Object findServiceOfType(EvaluatedType type) {
+        var provider = resolveService(type);
+        if (SyringeMetrics.ENABLED && metrics != null) {
+            metrics.lookups.increment();
+            if (provider == null) {
+                metrics.misses.increment();
             }
         }
-        return null;
+        return provider == null ? null : provider.get();
     }
 
     private Object getServiceOfType(EvaluatedType type) {
@@ -63,12 +234,57 @@ private Object getServiceOfType(EvaluatedType type) {
         throw new RuntimeException("Cannot inject type " + type);
     }
 
-    private @Nullable Object tryInstantiate(EvaluatedType evaluatedType, Object[] args) {
-        var instantiator = instantiators.get(evaluatedType.rawType());
-        if (instantiator != null) {
-            return instantiator.get().newInstance(evaluatedType.typeParameters(), args);
+    private @Nullable Provider<Instantiator<?>> instantiatorViaProvider(Class<?> rawType) {
+        return snapshot.instantiators().get(rawType);
+    }
+
+    // The instantiator for a type, specialized to that type, so that repeated instantiations do not resolve the
+    // instantiator again
+    private record BoundInstantiator(EvaluatedType type, Class<?> instantiator, SpecializedInstantiator.Creator<?> creator) {
+        private @Nullable Object create(Object[] args) {
+            if (!SyringeEvents.INSTANTIATION.isEnabled()) {
+                return creator.create(args);
+            }
+            var event = new SyringeEvents.Instantiation();
+            event.begin();
+            var instance = creator.create(args);
+            event.end();
+            if (event.shouldCommit()) {
+                event.instantiatedType = type.toString();
+                event.instantiator = instantiator;
+                event.commit();
+            }
+            return instance;
+        }
+    }
+
+    private @Nullable BoundInstantiator boundInstantiator(EvaluatedType type) {
+        var snapshot = this.snapshot;
+        var boundInstantiators = snapshot.caches().boundInstantiators();
+        var bound = boundInstantiators.get(type);
+        if (bound == null) {
+            // Not computeIfAbsent, as specializing an instantiator may instantiate other types
+            var provider = snapshot.instantiators().get(type.rawType());
+            bound = provider == null ? NO_INSTANTIATOR : bind(provider.get(), type);
+            var existing = boundInstantiators.putIfAbsent(type, bound);
+            if (existing != null) {
+                bound = existing;
+            }
         }
-        return parent != null ? parent.tryInstantiate(evaluatedType, args) : null;
+        return bound == NO_INSTANTIATOR ? null : bound;
+    }
+
+    private static BoundInstantiator bind(Instantiator<?> instantiator, EvaluatedType type) {
+        var typeParameters = type.typeParameters();
+        if (instantiator instanceof SpecializedInstantiator<?> specialized) {
+            return new BoundInstantiator(type, instantiator.getClass(), specialized.specialize(typeParameters));
+        }
+        return new BoundInstantiator(type, instantiator.getClass(), args -> instantiator.newInstance(typeParameters, args));
+    }
+
+    private @Nullable Object tryInstantiate(EvaluatedType evaluatedType, Object[] args) {
+        var bound = boundInstantiator(evaluatedType);
+        return bound == null ? null : bound.create(args);
     }
 
     @SuppressWarnings("unchecked")
@@ -77,8 +293,31 @@ public <T> T findService(Class<T> clazz) {
         return (T) getServiceOfType(EvaluatedType.of(clazz));
     }
 
+    private boolean isScoped(Class<?> clazz) {
+        return ANNOTATED_SCOPED.get(clazz) || snapshot.scopedTypes().contains(clazz);
+    }
+
+    private Object scopedInstance(EvaluatedType type, Object[] args) {
+        if (args.length != 0) {
+            throw new IllegalArgumentException("Type " + type + " is scoped to its factory, and cannot be instantiated with arguments");
+        }
+        var provider = scopedInstances.get(type);
+        if (provider == null) {
+            // The provider, not the instance, is created under the map's lock, so construction may itself create scoped instances
+            provider = scopedInstances.computeIfAbsent(type, t -> new LazyProvider<>(() -> newUnscopedInstance(t, args), t));
+        }
+        return provider.get();
+    }
+
     @Override
     public Object newInstance(EvaluatedType type, Object... args) {
+        if (isScoped(type.rawType())) {
+            return scopedInstance(type, args);
+        }
+        return newUnscopedInstance(type, args);
+    }
+
+    private Object newUnscopedInstance(EvaluatedType type, Object[] args) {
         var instance = tryInstantiate(type, args);
         if (instance != null) {
             return instance;
@@ -91,6 +330,9 @@ public Object newInstance(EvaluatedType type, Object... args) {
 
     @Override
     public <T> T newInstance(Class<T> clazz, Object... argumentValues) {
+        if (isScoped(clazz)) {
+            return clazz.cast(scopedInstance(EvaluatedType.of(clazz), argumentValues));
+        }
         var withInstantiator = tryInstantiate(EvaluatedType.of(clazz), argumentValues);
         if (withInstantiator != null) {
             return clazz.cast(withInstantiator);
@@ -99,49 +341,222 @@ public <T> T newInstance(Class<T> clazz, Object... argumentValues) {
         return makeNewInstance(clazz, argumentValues);
     }
 
-    private  <T> T makeNewInstance(Class<T> clazz, Object[] argumentValues) {
-        var creator = creators.computeIfAbsent(clazz, InjectedImplementation::implement);
-        var targetParams = creator.constructor().handle().type().parameterArray();
-        Object[] args = new Object[targetParams.length];
-        int i = 0;
-        for (var argValue : argumentValues) {
-            if (i >= creator.maxManualParameters()) {
-                throw new IllegalArgumentException("Expected at most " + targetParams.length + " arguments, received " + argumentValues.length);
+    // Everything a class needs from this factory, resolved once. Service providers are null where no service is bound, as
+    // a manual argument may be provided there instead. Instances are followed by primitive values.
+    private record InstantiationPlan(InjectedImplementation creator, @Nullable Provider<?>[] services, Supplier<?>[] instances) {
+        private Object argument(Object[] argumentValues, int index) {
+            if (index < argumentValues.length) {
+                return argumentValues[index];
+            } else if (index < services.length) {
+                var provider = services[index];
+                if (provider == null) {
+                    throw new RuntimeException("Cannot inject type " + creator.injectedServices().get(index));
+                }
+                return provider.get();
             }
-            args[i] = argValue;
-            i++;
+            return instances[index - services.length].get();
         }
-        var iterator = creator.injectedServices().iterator();
-        for (int j = 0; j < i; j++) {
-            iterator.next();
+    }
+
+    private InstantiationPlan plan(Class<?> clazz) {
+        var creator = creator(clazz);
+        var services = new Provider<?>[creator.injectedServices().size()];
+        for (int i = 0; i < services.length; i++) {
+            services[i] = resolveService(creator.injectedServices().get(i));
+        }
+        var instantiations = creator.injectedInstances().size();
+        var instances = new Supplier<?>[instantiations + creator.injectedPrimitives().size()];
+        for (int i = 0; i < instantiations; i++) {
+            instances[i] = planInstantiation(creator.injectedInstances().get(i));
+        }
+        for (int i = instantiations; i < instances.length; i++) {
+            instances[i] = planPrimitive(clazz, creator.injectedPrimitives().get(i - instantiations));
+        }
+        return new InstantiationPlan(creator, services, instances);
+    }
+
+    private Supplier<?> planInstantiation(InjectedImplementation.Instantiation instantiation) {
+        var type = instantiation.type();
+        var args = instantiation.args();
+        if (isScoped(type.rawType())) {
+            return () -> scopedInstance(type, args);
+        }
+        if (instantiatorViaProvider(type.rawType()) != null) {
+            // Specialized on first use rather than while planning, as plans are computed under the plan map's lock
+            return () -> {
+                var instance = tryInstantiate(type, args);
+                return instance != null ? instance : newInstanceWithoutInstantiator(type, args);
+            };
+        }
+        return () -> newInstanceWithoutInstantiator(type, args);
+    }
+
+    private Object assistedFactory(Class<?> factoryType) {
+        var assistedFactories = snapshot.caches().assistedFactories();
+        var existing = assistedFactories.get(factoryType);
+        if (existing != null) {
+            return existing;
+        }
+        // Not computeIfAbsent, as implementing one factory may implement others
+        var implemented = implementAssistedFactory(factoryType);
+        existing = assistedFactories.putIfAbsent(factoryType, implemented);
+        return existing != null ? existing : implemented;
+    }
+
+    // Binds everything but the factory method's parameters into the constructor handle, so that calling the factory needs
+    // neither an argument array nor boxing
+    private Object implementAssistedFactory(Class<?> factoryType) {
+        var method = AssistedFactories.method(factoryType);
+        var instanceType = method.getReturnType();
+        if (instanceType.isPrimitive() || instanceType.isInterface() || isScoped(instanceType) || instantiatorViaProvider(instanceType) != null) {
+            throw new RuntimeException("Assisted factory must return a class that is constructed directly, not " + instanceType + ": " + factoryType.getName());
+        }
+        var plan = plan(instanceType);
+        var creator = plan.creator();
+        var parameters = method.getParameterTypes();
+        if (parameters.length > creator.maxManualParameters()) {
+            throw new RuntimeException("Assisted factory " + factoryType.getName() + " passes " + parameters.length + " arguments, but " + instanceType.getName() + " accepts at most " + creator.maxManualParameters());
         }
-        while (iterator.hasNext()) {
-            var nextServiceType = iterator.next();
-            args[i] = getServiceOfType(nextServiceType);
-            i++;
+        var target = creator.constructor().handle();
+        for (int i = plan.services().length + plan.instances().length - 1; i >= parameters.length; i--) {
+            Supplier<?> supplier;
+            if (i < plan.services().length) {
+                var provider = plan.services()[i];
+                if (provider == null) {
+                    throw new RuntimeException("Cannot inject type " + creator.injectedServices().get(i));
+                } else if (provider.isPresent()) {
+                    target = MethodHandles.insertArguments(target, i, provider.get());
+                    continue;
+                }
+                supplier = provider::get;
+            } else {
+                supplier = plan.instances()[i - plan.services().length];
+            }
+            var parameterType = target.type().parameterType(i);
+            target = MethodHandles.collectArguments(target, i, SUPPLIER_GET.bindTo(supplier).asType(MethodType.methodType(parameterType)));
         }
-        for (InjectedImplementation.Instantiation instantiation : creator.injectedInstances()) {
-            var instance = newInstance(instantiation.type(), instantiation.args());
-            args[i] = instance;
-            i++;
+        for (int i = 0; i < parameters.length; i++) {
+            var expected = target.type().parameterType(i);
+            if (parameters[i] != expected && (parameters[i].isPrimitive() || expected.isPrimitive() || !expected.isAssignableFrom(parameters[i]))) {
+                throw new RuntimeException("Parameter " + i + " of assisted factory " + factoryType.getName() + " is " + parameters[i] + ", but " + instanceType.getName() + " expects " + expected);
+            }
+        }
+        return AssistedFactories.define(factoryType, target.asType(AssistedFactories.type(method)));
+    }
+
+    private Supplier<?> planPrimitive(Class<?> clazz, InjectedImplementation.Primitive primitive) {
+        var type = primitive.type();
+        var name = primitive.name();
+        var provider = snapshot.primitives().get(name);
+        // Boxed only to pass through the constructor's generic invoker; the field itself holds the primitive
+        if (provider instanceof IntProvider intProvider && type == int.class) {
+            return intProvider::getAsInt;
+        } else if (provider instanceof LongProvider longProvider && type == long.class) {
+            return longProvider::getAsLong;
+        } else if (provider instanceof DoubleProvider doubleProvider && type == double.class) {
+            return doubleProvider::getAsDouble;
+        } else if (provider instanceof BooleanProvider booleanProvider && type == boolean.class) {
+            return booleanProvider::getAsBoolean;
+        }
+        throw new RuntimeException("Cannot inject " + type + " value " + name + " into getter " + primitive.getter() + " of " + clazz.getName() + (provider == null ? "; no value is bound" : "; it is bound with a different type"));
+    }
+
+    private Object newInstanceWithoutInstantiator(EvaluatedType type, Object[] args) {
+        if (type.typeParameters().isEmpty()) {
+            return makeNewInstance(type.rawType(), args);
+        }
+        throw new RuntimeException("Cannot instantiate type " + type);
+    }
+
+    private <T> T makeNewInstance(Class<T> clazz, Object[] argumentValues) {
+        if (clazz.isInterface()) {
+            if (argumentValues.length != 0) {
+                throw new IllegalArgumentException("Assisted factory " + clazz.getName() + " cannot be instantiated with arguments");
+            }
+            return clazz.cast(assistedFactory(clazz));
+        }
+        if (SyringeMetrics.ENABLED && metrics != null) {
+            var start = System.nanoTime();
+            try {
+                return construct(clazz, argumentValues);
+            } finally {
+                metrics.recordInstantiation(clazz, System.nanoTime() - start);
+            }
         }
+        return construct(clazz, argumentValues);
+    }
+
+    private <T> T construct(Class<T> clazz, Object[] argumentValues) {
+        var plans = snapshot.caches().plans();
+        var plan = plans.get(clazz);
+        if (plan == null) {
+            plan = plans.computeIfAbsent(clazz, this::plan);
+        }
+        var creator = plan.creator();
+        if (argumentValues.length > creator.maxManualParameters()) {
+            throw new IllegalArgumentException("Expected at most " + creator.maxManualParameters() + " arguments, received " + argumentValues.length);
+        }
+        var invoker = creator.constructor();
+        Object instance;
         try {
-            return clazz.cast(creator.constructor().invoke(args));
+            // Arguments are evaluated left to right, so services and instances are still resolved in constructor order
+            instance = switch (plan.services().length + plan.instances().length) {
+                case 0 -> invoker.invoke0();
+                case 1 -> invoker.invoke1(plan.argument(argumentValues, 0));
+                case 2 -> invoker.invoke2(plan.argument(argumentValues, 0), plan.argument(argumentValues, 1));
+                case 3 -> invoker.invoke3(plan.argument(argumentValues, 0), plan.argument(argumentValues, 1), plan.argument(argumentValues, 2));
+                case 4 -> invoker.invoke4(plan.argument(argumentValues, 0), plan.argument(argumentValues, 1), plan.argument(argumentValues, 2), plan.argument(argumentValues, 3));
+                case 5 -> invoker.invoke5(plan.argument(argumentValues, 0), plan.argument(argumentValues, 1), plan.argument(argumentValues, 2), plan.argument(argumentValues, 3), plan.argument(argumentValues, 4));
+                case 6 -> invoker.invoke6(plan.argument(argumentValues, 0), plan.argument(argumentValues, 1), plan.argument(argumentValues, 2), plan.argument(argumentValues, 3), plan.argument(argumentValues, 4), plan.argument(argumentValues, 5));
+                default -> {
+                    var args = new Object[plan.services().length + plan.instances().length];
+                    for (int i = 0; i < args.length; i++) {
+                        args[i] = plan.argument(argumentValues, i);
+                    }
+                    yield invoker.invoke(args);
+                }
+            };
+        } catch (RuntimeException | Error e) {
+            throw e;
         } catch (Throwable e) {
+            // Constructors may throw checked exceptions through the invoker
             throw new RuntimeException(e);
         }
+        return clazz.cast(instance);
+    }
+
+    private Object constructService(EvaluatedType type, Configuration.ToCreate<?> toCreate) {
+        var start = SyringeMetrics.ENABLED ? System.nanoTime() : 0;
+        var event = new SyringeEvents.ServiceConstruction();
+        event.begin();
+        var instance = newInstance(toCreate.implementation(), toCreate.args());
+        event.end();
+        if (SyringeMetrics.ENABLED) {
+            SyringeMetrics.DELAYED_INITIALIZATIONS.record(System.nanoTime() - start);
+        }
+        if (event.shouldCommit()) {
+            event.serviceType = type.toString();
+            event.implementationType = toCreate.implementation();
+            event.commit();
+        }
+        return instance;
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
     @Override
     public ObjectFactoryImplementation newObjectFactory(Configuration configuration) {
         var factory = new ObjectFactoryImplementation(this.classLoader, this);
-        factory.serviceProviders.putAll(configuration.providers);
-
-        factory.servicesToPropogate.putAll(this.servicesToPropogate);
-        factory.servicesToPropogate.putAll(configuration.toCreateServiceTypes);
+        factory.complete = false;
+        synchronized (this.indexLock) {
+            if (!this.complete) {
+                this.dependents.add(factory);
+            }
+        }
+        var parentSnapshot = this.snapshot;
 
-        var servicesToCreate = new HashMap<>(factory.servicesToPropogate);
+        var servicesToCreate = new HashMap<>(parentSnapshot.servicesToPropogate());
+        servicesToCreate.putAll(configuration.toCreateServiceTypes);
+        var servicesToPropogate = Map.copyOf(servicesToCreate);
         servicesToCreate.putAll(configuration.toCreateServices);
 
         var toCreateServices = new HashMap<EvaluatedType, DelayedProvider<?>>();
@@ -149,26 +564,61 @@ public ObjectFactoryImplementation newObjectFactory(Configuration configuration)
             var provider = new DelayedProvider<>(entry.getKey());
             toCreateServices.put(entry.getKey(), provider);
         }
-        factory.serviceProviders.putAll(toCreateServices);
-        for (var entry : toCreateServices.entrySet()) {
-            var toCreate = servicesToCreate.get(entry.getKey());
-            var instance = factory.newInstance(toCreate.implementation(), toCreate.args());
-            ((DelayedProvider) entry.getValue()).set(instance);
+
+        var lazyServices = new HashMap<EvaluatedType, LazyProvider<?>>();
+        for (var entry : configuration.toCreateLazyServices.entrySet()) {
+            var toCreate = entry.getValue();
+            var provider = new LazyProvider<>(() -> factory.newInstance(toCreate.implementation(), toCreate.args()), entry.getKey());
+            lazyServices.put(entry.getKey(), provider);
         }
 
-        // Instantiators after services
-        factory.instantiatorsToPropogate.putAll(this.instantiatorsToPropogate);
-        factory.instantiatorsToPropogate.putAll(configuration.toCreateInstantiatorTypes);
+        var asyncServices = new HashMap<EvaluatedType, AsyncProvider<?>>();
+        for (var entry : configuration.toCreateAsyncServices.entrySet()) {
+            var provider = new AsyncProvider<>(entry.getKey());
+            asyncServices.put(entry.getKey(), provider);
+        }
 
-        var instantiatorsToCreate = new HashMap<>(factory.instantiatorsToPropogate);
+        // Bindings are only changed under the lock, as a reindex cascading from this factory's parent may read them from
+        // another thread at any time; nothing is constructed while holding it
+        synchronized (factory.indexLock) {
+            factory.serviceProviders.putAll(configuration.providers);
+            factory.scopedTypes.addAll(configuration.scopedTypes);
+            factory.primitives.putAll(configuration.primitives);
+            // Copied, as the configuration may go on to be changed and reused
+            for (var entry : configuration.setContributions.entrySet()) {
+                factory.setContributions.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+            }
+            for (var entry : configuration.mapContributions.entrySet()) {
+                factory.mapContributions.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+            }
+            factory.servicesToPropogate.putAll(servicesToPropogate);
+            factory.serviceProviders.putAll(toCreateServices);
+            factory.serviceProviders.putAll(lazyServices);
+            factory.serviceProviders.putAll(asyncServices);
+            factory.reindex();
+        }
+        var graph = new ServiceGraph(servicesToCreate, asyncServices.keySet(), clazz -> factory.instantiatorViaProvider(clazz) != null ? null : creator(clazz));
+        graph.construct(configuration.serviceExecutor, Set.of(), Runnable::run, type -> {
+            var instance = factory.constructService(type, servicesToCreate.get(type));
+            ((DelayedProvider) toCreateServices.get(type)).set(instance);
+        });
+
+        // Instantiators after services
+        var instantiatorsToCreate = new HashMap<>(this.snapshot.instantiatorsToPropogate());
+        instantiatorsToCreate.putAll(configuration.toCreateInstantiatorTypes);
+        var instantiatorsToPropogate = Map.copyOf(instantiatorsToCreate);
         instantiatorsToCreate.putAll(configuration.toCreateInstantiators);
-        for (var entry : configuration.instantiators.entrySet()) {
-            var provider = new ConstantProvider<Instantiator<?>>(entry.getValue());
-            factory.instantiators.put(entry.getKey(), provider);
+        synchronized (factory.indexLock) {
+            factory.instantiatorsToPropogate.putAll(instantiatorsToPropogate);
+            for (var entry : configuration.instantiators.entrySet()) {
+                var provider = new ConstantProvider<Instantiator<?>>(entry.getValue());
+                factory.instantiators.put(entry.getKey(), provider);
+            }
+            factory.reindex();
         }
         var toCreateInstantiators = new HashMap<Class<?>, DelayedProvider<Instantiator<?>>>();
         for (var entry : instantiatorsToCreate.entrySet()) {
-            var provider = new DelayedProvider<Instantiator<?>>(new EvaluatedType(Instantiator.class, List.of(EvaluatedType.of(entry.getKey()))));
+            var provider = new DelayedProvider<Instantiator<?>>(EvaluatedType.of(Instantiator.class, List.of(EvaluatedType.of(entry.getKey()))));
             toCreateInstantiators.put(entry.getKey(), provider);
         }
         for (var entry : toCreateInstantiators.entrySet()) {
@@ -177,8 +627,54 @@ public ObjectFactoryImplementation newObjectFactory(Configuration configuration)
             entry.getValue().set(instance);
         }
         // Unlike services, we do not make these available until afterward -- services must use instantiators from the parent factory
-        factory.instantiators.putAll(toCreateInstantiators);
+        synchronized (factory.indexLock) {
+            factory.instantiators.putAll(toCreateInstantiators);
+            factory.reindex();
+            factory.complete = true;
+            factory.dependents.clear();
+        }
+
+        // Only started now, so that they are constructed with the factory's own instantiators, like anything created
+        // from it afterward
+        if (!asyncServices.isEmpty()) {
+            var asyncGraph = new ServiceGraph(configuration.toCreateAsyncServices, Set.of(), clazz -> factory.instantiatorViaProvider(clazz) != null ? null : creator(clazz));
+            asyncServices.values().forEach(AsyncProvider::start);
+            var asyncExecutor = configuration.asyncExecutor != null ? configuration.asyncExecutor : ASYNC_EXECUTOR;
+            asyncGraph.construct(null, asyncServices.keySet(), asyncExecutor, type -> {
+                var provider = (AsyncProvider) asyncServices.get(type);
+                try {
+                    provider.complete(factory.constructService(type, configuration.toCreateAsyncServices.get(type)));
+                } catch (Throwable t) {
+                    provider.fail(t);
+                }
+            });
+        }
+
+        var warmUpExecutor = configuration.warmUpExecutor;
+        if (warmUpExecutor != null && !lazyServices.isEmpty()) {
+            var providers = List.copyOf(lazyServices.values());
+            factory.warmUp.set(() -> {
+                for (var provider : providers) {
+                    warmUpExecutor.execute(() -> {
+                        try {
+                            provider.get();
+                        } catch (RuntimeException e) {
+                            // Constructing the service again when it is first requested will surface the failure
+                            LOGGER.debug("Failed to warm up lazy service", e);
+                        }
+                    });
+                }
+            });
+        }
 
         return factory;
     }
+
+    @Override
+    public void startWarmUp() {
+        var toStart = warmUp.getAndSet(null);
+        if (toStart != null) {
+            toStart.run();
+        }
+    }
 }
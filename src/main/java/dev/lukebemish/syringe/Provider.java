@@ -3,5 +3,9 @@
 public interface Provider<T> {
     T get();
 
+    /**
+     * Whether the value has already been computed, such that {@link #get()} returns it immediately and always returns the
+     * same value.
+     */
     boolean isPresent();
 }
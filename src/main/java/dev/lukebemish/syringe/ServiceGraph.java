@@ -0,0 +1,141 @@
+package dev.lukebemish.syringe;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Orders services to create so that each is constructed after the services it depends on. Constructor parameters are
+// hard dependencies and must not form a cycle; providers and injected getters are only followed where they do not.
+// Instances for abstract getters are constructed along with the service, so their dependencies are the service's too.
+// Types that are not available until after construction may not be hard dependencies at all.
+final class ServiceGraph {
+    private record Edge(EvaluatedType target, boolean hard) {}
+
+    private final Map<EvaluatedType, ? extends ObjectFactory.Configuration.ToCreate<?>> services;
+    private final Function<Class<?>, @Nullable InjectedImplementation> creators;
+    private final Set<EvaluatedType> unavailable;
+    private final Map<EvaluatedType, List<Edge>> edges = new LinkedHashMap<>();
+    private final Map<EvaluatedType, List<EvaluatedType>> dependencies = new HashMap<>();
+    private final List<EvaluatedType> ordered = new ArrayList<>();
+
+    private final Set<EvaluatedType> visited = new HashSet<>();
+    private final List<EvaluatedType> path = new ArrayList<>();
+    private final List<Boolean> pathHard = new ArrayList<>();
+
+    ServiceGraph(Map<EvaluatedType, ? extends ObjectFactory.Configuration.ToCreate<?>> services, Set<EvaluatedType> unavailable, Function<Class<?>, @Nullable InjectedImplementation> creators) {
+        this.services = services;
+        this.creators = creators;
+        this.unavailable = unavailable;
+        for (var entry : services.entrySet()) {
+            var toCreate = entry.getValue();
+            var serviceEdges = new ArrayList<Edge>();
+            collectEdges(entry.getKey(), toCreate.implementation(), toCreate.args().length, serviceEdges, new HashSet<>());
+            edges.put(entry.getKey(), serviceEdges);
+        }
+        for (var type : edges.keySet()) {
+            visit(type);
+        }
+    }
+
+    private void collectEdges(EvaluatedType service, Class<?> implementation, int manualArguments, List<Edge> serviceEdges, Set<Class<?>> seen) {
+        // Instances created through an instantiator may depend on anything, so are not followed
+        var creator = seen.add(implementation) ? creators.apply(implementation) : null;
+        if (creator == null) {
+            return;
+        }
+        var injected = creator.injectedServices();
+        for (int i = manualArguments; i < injected.size(); i++) {
+            var type = injected.get(i);
+            var hard = i < creator.maxManualParameters();
+            if (type.rawType() == Provider.class && !type.typeParameters().isEmpty()) {
+                type = type.typeParameters().getFirst();
+                hard = false;
+            }
+            if (hard && unavailable.contains(type)) {
+                throw new RuntimeException("Service of type " + service + " depends on " + type + ", which is constructed asynchronously once its factory has been created; inject AsyncProvider<" + type + "> instead");
+            }
+            if (services.containsKey(type)) {
+                serviceEdges.add(new Edge(type, hard));
+            }
+        }
+        for (var instantiation : creator.injectedInstances()) {
+            collectEdges(service, instantiation.type().rawType(), instantiation.args().length, serviceEdges, seen);
+        }
+    }
+
+    private void visit(EvaluatedType type) {
+        if (visited.contains(type)) {
+            return;
+        }
+        path.add(type);
+        var serviceDependencies = new ArrayList<EvaluatedType>();
+        for (var edge : edges.get(type)) {
+            var start = path.indexOf(edge.target());
+            if (start >= 0) {
+                if (edge.hard() && !pathHard.subList(start, pathHard.size()).contains(false)) {
+                    var cycle = path.subList(start, path.size()).stream().map(EvaluatedType::toString).collect(Collectors.joining(" -> "));
+                    throw new RuntimeException("Cycle in service constructor dependencies: " + cycle + " -> " + edge.target());
+                }
+                continue;
+            }
+            pathHard.add(edge.hard());
+            visit(edge.target());
+            pathHard.removeLast();
+            serviceDependencies.add(edge.target());
+        }
+        path.removeLast();
+        visited.add(type);
+        dependencies.put(type, serviceDependencies);
+        ordered.add(type);
+    }
+
+    // Services in async are constructed on asyncExecutor once their dependencies are, and are not waited for; their
+    // construction must report failures through their providers rather than throw
+    void construct(@Nullable Executor executor, Set<EvaluatedType> async, Executor asyncExecutor, Consumer<EvaluatedType> construct) {
+        var futures = new HashMap<EvaluatedType, CompletableFuture<?>>();
+        var waitFor = new ArrayList<CompletableFuture<?>>();
+        for (var type : ordered) {
+            var serviceDependencies = CompletableFuture.allOf(dependencies.get(type).stream().map(futures::get).toArray(CompletableFuture<?>[]::new));
+            CompletableFuture<?> future;
+            if (async.contains(type)) {
+                // Even if a dependency failed, so that the failure reaches this service's provider
+                future = serviceDependencies.handleAsync((ignored, throwable) -> {
+                    construct.accept(type);
+                    return null;
+                }, asyncExecutor);
+            } else if (executor == null) {
+                construct.accept(type);
+                future = CompletableFuture.completedFuture(null);
+            } else {
+                future = serviceDependencies.thenRunAsync(() -> construct.accept(type), executor);
+                waitFor.add(future);
+            }
+            futures.put(type, future);
+        }
+        if (waitFor.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(waitFor.toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
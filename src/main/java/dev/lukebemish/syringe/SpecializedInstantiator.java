@@ -0,0 +1,23 @@
+package dev.lukebemish.syringe;
+
+import java.util.List;
+
+/**
+ * An {@link Instantiator} that does its per-type work up front. An object factory specializes it once for each type it is
+ * asked to instantiate, and reuses the resulting {@link Creator} for every later instance of that type. This hoists
+ * resolving the instantiator and any state that depends only on the type parameters out of each instantiation; the
+ * creator still receives the untyped argument array, and must check its arguments itself.
+ */
+public interface SpecializedInstantiator<T> extends Instantiator<T> {
+    Creator<? extends T> specialize(List<EvaluatedType> typeParameters);
+
+    @Override
+    default T newInstance(List<EvaluatedType> typeParameters, Object... args) {
+        return specialize(typeParameters).create(args);
+    }
+
+    @FunctionalInterface
+    interface Creator<T> {
+        T create(Object... args);
+    }
+}
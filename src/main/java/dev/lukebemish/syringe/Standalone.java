@@ -0,0 +1,49 @@
+package dev.lukebemish.syringe;
+
+import org.jspecify.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Runs Syringe outside of FML, for instance in datagen tooling, headless test servers or benchmarks. Must be called
+ * before anything else uses Syringe, and at most once.
+ */
+public final class Standalone {
+    private static Bootstrap.@Nullable Environment environment;
+    private static boolean claimed;
+
+    private Standalone() {}
+
+    /**
+     * Bootstrap Syringe, returning the root factory.
+     * @param target a lookup with full privilege access, in whose package generated classes are defined
+     * @param discoverers discoverers to configure the root factory with; discoverers annotated with
+     *                    {@link dev.lukebemish.syringe.annotations.ModScope} are ignored, as there are no mods
+     * @param cacheDirectory where to cache generated classes across runs, or null to not cache them
+     */
+    public static ObjectFactory bootstrap(MethodHandles.Lookup target, List<? extends InstantiatorDiscoverer> discoverers, @Nullable Path cacheDirectory) {
+        if (!target.hasFullPrivilegeAccess()) {
+            throw new IllegalArgumentException("Lookup must have full privilege access to define classes: "+target);
+        }
+        // Not holding the lock while initializing Bootstrap, which itself claims the environment
+        synchronized (Standalone.class) {
+            // Either Bootstrap already initialized with some environment, or another caller is about to initialize it with theirs
+            if (claimed || environment != null) {
+                throw new IllegalStateException("Syringe has already been bootstrapped");
+            }
+            environment = new Bootstrap.Environment(target, List.copyOf(discoverers), cacheDirectory);
+        }
+        return Bootstrap.ROOT;
+    }
+
+    public static ObjectFactory bootstrap(MethodHandles.Lookup target, List<? extends InstantiatorDiscoverer> discoverers) {
+        return bootstrap(target, discoverers, null);
+    }
+
+    static synchronized Bootstrap.@Nullable Environment claim() {
+        claimed = true;
+        return environment;
+    }
+}
@@ -0,0 +1,197 @@
+package dev.lukebemish.syringe;
+
+import net.neoforged.fml.loading.FMLPaths;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Startup cost per Syringe mod. Class generation is attributed to whichever mod is being set up on the current thread,
+// so work done on a service construction executor is not counted against any mod. Pregeneration enters the mod's report
+// on its own thread; the share of generation it did is also reported separately, as it is off the critical path.
+final class StartupReport {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ThreadLocal<@Nullable StartupReport> CURRENT = new ThreadLocal<>();
+
+    private static final List<StartupReport> REPORTS = new ArrayList<>();
+    private static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+
+    enum Phase {
+        CLASS_LOADING("class loading", "classLoading"),
+        DISCOVERERS("discoverers", "discoverers"),
+        SERVICE_FACTORY("service factory", "serviceFactory"),
+        MOD_FACTORY("mod factory", "modFactory"),
+        MOD_SERVICES("mod services", "modServices"),
+        EVENT_SUBSCRIBERS("subscribers", "eventSubscribers");
+
+        private final String label;
+        private final String key;
+
+        Phase(String label, String key) {
+            this.label = label;
+            this.key = key;
+        }
+    }
+
+    private final String modId;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final LongAdder hiddenClasses = new LongAdder();
+    private final LongAdder generationNanos = new LongAdder();
+    private final LongAdder pregenerationNanos = new LongAdder();
+    // Guarded by REPORTS
+    private boolean constructed;
+
+    StartupReport(String modId) {
+        this.modId = modId;
+    }
+
+    static @Nullable StartupReport current() {
+        return CURRENT.get();
+    }
+
+    @Nullable StartupReport enter() {
+        var previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    void exit(@Nullable StartupReport previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    void record(Phase phase, long start) {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+    }
+
+    void recordGeneration(long nanos) {
+        generationNanos.add(nanos);
+    }
+
+    void recordPregeneration(long nanos) {
+        pregenerationNanos.add(nanos);
+    }
+
+    void recordHiddenClass() {
+        hiddenClasses.increment();
+    }
+
+    private long totalNanos() {
+        long total = 0;
+        for (var nanos : phaseNanos) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    // Called once the mod's container exists, so that only mods that will be constructed are waited on
+    void register() {
+        synchronized (REPORTS) {
+            REPORTS.add(this);
+        }
+    }
+
+    void constructed() {
+        List<StartupReport> reports;
+        synchronized (REPORTS) {
+            if (constructed) {
+                return;
+            }
+            constructed = true;
+            if (CONSTRUCTED.incrementAndGet() != REPORTS.size()) {
+                return;
+            }
+            reports = new ArrayList<>(REPORTS);
+        }
+        reports.sort(Comparator.comparingLong(StartupReport::totalNanos).reversed());
+        LOGGER.info("Syringe startup cost by mod:\n{}", table(reports));
+        var file = FMLPaths.GAMEDIR.get().resolve("logs").resolve("syringe-startup.json");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, json(reports));
+        } catch (IOException e) {
+            LOGGER.warn("Could not write Syringe startup report to {}", file, e);
+        }
+    }
+
+    private static String table(List<StartupReport> reports) {
+        var phases = Phase.values();
+        var header = new ArrayList<String>();
+        header.add("mod");
+        header.add("total");
+        for (var phase : phases) {
+            header.add(phase.label);
+        }
+        header.add("hidden classes");
+        header.add("generation");
+        header.add("pregenerated");
+        var rows = new ArrayList<List<String>>();
+        rows.add(header);
+        for (var report : reports) {
+            var row = new ArrayList<String>();
+            row.add(report.modId);
+            row.add(millis(report.totalNanos()));
+            for (var phase : phases) {
+                row.add(millis(report.phaseNanos[phase.ordinal()]));
+            }
+            row.add(Long.toString(report.hiddenClasses.sum()));
+            row.add(millis(report.generationNanos.sum()));
+            row.add(millis(report.pregenerationNanos.sum()));
+            rows.add(row);
+        }
+        var widths = new int[header.size()];
+        for (var row : rows) {
+            for (int i = 0; i < widths.length; i++) {
+                widths[i] = Math.max(widths[i], row.get(i).length());
+            }
+        }
+        var builder = new StringBuilder();
+        for (var row : rows) {
+            for (int i = 0; i < widths.length; i++) {
+                var cell = row.get(i);
+                // Mod IDs are left-aligned, numbers right-aligned
+                var padding = " ".repeat(widths[i] - cell.length());
+                builder.append(i == 0 ? cell + padding : padding + cell);
+                builder.append(i == widths.length - 1 ? "\n" : "  ");
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String json(List<StartupReport> reports) {
+        // Mod IDs are restricted to characters that never need escaping
+        var builder = new StringBuilder("{\n  \"mods\": [");
+        for (int i = 0; i < reports.size(); i++) {
+            var report = reports.get(i);
+            builder.append(i == 0 ? "\n" : ",\n");
+            builder.append("    {\"modId\": \"").append(report.modId).append('"');
+            builder.append(", \"totalNanos\": ").append(report.totalNanos());
+            builder.append(", \"phaseNanos\": {");
+            for (var phase : Phase.values()) {
+                builder.append(phase.ordinal() == 0 ? "" : ", ");
+                builder.append('"').append(phase.key).append("\": ").append(report.phaseNanos[phase.ordinal()]);
+            }
+            builder.append('}');
+            builder.append(", \"hiddenClasses\": ").append(report.hiddenClasses.sum());
+            builder.append(", \"generationNanos\": ").append(report.generationNanos.sum());
+            builder.append(", \"pregenerationNanos\": ").append(report.pregenerationNanos.sum());
+            builder.append('}');
+        }
+        return builder.append("\n  ]\n}\n").toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f ms", nanos / 1_000_000.0);
+    }
+}
@@ -3,23 +3,110 @@
 import net.neoforged.bus.api.Event;
 import net.neoforged.bus.api.EventPriority;
 import net.neoforged.bus.api.IEventBus;
-
+import net.neoforged.bus.api.SubscribeEvent;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessFlag;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
-import java.util.function.Function;
+import java.util.stream.Stream;
+
+final class SuperclassAllowingEventBus implements IEventBus {
+    private static final Map<Class<?>, List<Listener>> LISTENERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, List<Listener>> STATIC_LISTENERS = new ConcurrentHashMap<>();
+
+    private final IEventBus delegate;
+    // The listeners added for each registered object, so that they can be removed when it is unregistered
+    private final Map<Object, List<Consumer<? extends Event>>> registered = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    SuperclassAllowingEventBus(IEventBus delegate) {
+        this.delegate = delegate;
+    }
+
+    // The factory takes the target instance, or an ignored null for static handlers, and returns a bound Consumer
+    private record Listener(MethodHandle factory, Class<? extends Event> eventType, EventPriority priority, boolean receiveCanceled) {}
+
+    @SuppressWarnings("unchecked")
+    private static List<Listener> listeners(Class<?> clazz, boolean statics) {
+        var listeners = new ArrayList<Listener>();
+        for (var method : clazz.getMethods()) {
+            // Public `@SubscribeEvent` methods, including those inherited from superclasses
+            if (method.accessFlags().contains(AccessFlag.STATIC) != statics || !method.isAnnotationPresent(SubscribeEvent.class)) {
+                continue;
+            }
+            if (method.getParameterCount() != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                throw new IllegalArgumentException("Method "+method+" has @SubscribeEvent annotation, but requires a single argument that is a subtype of Event");
+            }
+            var eventType = (Class<? extends Event>) method.getParameterTypes()[0];
+            var annotation = method.getAnnotation(SubscribeEvent.class);
+            try {
+                var lookup = Bootstrap.ATTACHMENT_TARGET;
+                var site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "accept",
+                    statics ? MethodType.methodType(Consumer.class) : MethodType.methodType(Consumer.class, method.getDeclaringClass()),
+                    MethodType.methodType(void.class, Object.class),
+                    lookup.unreflect(method),
+                    MethodType.methodType(void.class, eventType)
+                );
+                var factory = statics
+                    ? MethodHandles.dropArguments(site.getTarget(), 0, Object.class)
+                    : site.getTarget().asType(MethodType.methodType(Consumer.class, Object.class));
+                listeners.add(new Listener(factory, eventType, annotation.priority(), annotation.receiveCanceled()));
+            } catch (LambdaConversionException | IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return List.copyOf(listeners);
+    }
 
-record SuperclassAllowingEventBus(IEventBus delegate) implements IEventBus {
-    private static final Map<Class<?>, Function<?, ?>> WRAPPERS = new ConcurrentHashMap<>();
+    static boolean hasListeners(Class<?> clazz, boolean statics) {
+        return !(statics ? STATIC_LISTENERS.computeIfAbsent(clazz, c -> listeners(c, true)) : LISTENERS.computeIfAbsent(clazz, c -> listeners(c, false))).isEmpty();
+    }
 
+    // Adds the handlers of the target, or the static handlers of the class if the target is null, directly to any bus
     @SuppressWarnings("unchecked")
+    static List<Consumer<? extends Event>> addListeners(IEventBus bus, Class<?> clazz, @Nullable Object target) {
+        var listeners = target == null
+            ? STATIC_LISTENERS.computeIfAbsent(clazz, c -> listeners(c, true))
+            : LISTENERS.computeIfAbsent(clazz, c -> listeners(c, false));
+        var consumers = new ArrayList<Consumer<? extends Event>>(listeners.size());
+        for (var listener : listeners) {
+            Consumer<Event> consumer;
+            try {
+                consumer = (Consumer<Event>) listener.factory().invokeExact(target);
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+            bus.addListener(listener.priority(), listener.receiveCanceled(), (Class<Event>) listener.eventType(), consumer);
+            consumers.add(consumer);
+        }
+        return consumers;
+    }
+
+    List<Consumer<? extends Event>> registerInstance(Object target) {
+        var consumers = List.copyOf(addListeners(delegate, target.getClass(), target));
+        registered.merge(target, consumers, (existing, added) -> Stream.concat(existing.stream(), added.stream()).toList());
+        return consumers;
+    }
+
     @Override
     public void register(Object target) {
-        if (!(target instanceof Class<?>)) {
-            var wrapper = (Function<Object, Object>) WRAPPERS.computeIfAbsent(target.getClass(), InjectedImplementation::wrap);
-            target = wrapper.apply(target);
+        if (target instanceof Class<?>) {
+            delegate.register(target);
+            return;
         }
-        delegate.register(target);
+        registerInstance(target);
     }
 
     @Override
@@ -64,7 +151,14 @@ public <T extends Event> void addListener(boolean receiveCanceled, Class<T> even
 
     @Override
     public void unregister(Object object) {
-        delegate.unregister(object);
+        var consumers = registered.remove(object);
+        if (consumers == null) {
+            delegate.unregister(object);
+            return;
+        }
+        for (var consumer : consumers) {
+            delegate.unregister(consumer);
+        }
     }
 
     @Override
@@ -0,0 +1,80 @@
+package dev.lukebemish.syringe;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Flight recorder events; callers only fill in fields once shouldCommit() says the event will actually be recorded
+final class SyringeEvents {
+    private SyringeEvents() {}
+
+    @Name("dev.lukebemish.syringe.ClassDefinition")
+    @Label("Class Definition")
+    @Category("Syringe")
+    @Description("Definition of a hidden class implementing an injected type")
+    static final class ClassDefinition extends Event {
+        @Label("Injected Type")
+        Class<?> injectedType;
+
+        @Label("Size")
+        @DataAmount(DataAmount.BYTES)
+        int size;
+
+        @Label("From Cache")
+        boolean fromCache;
+    }
+
+    @Name("dev.lukebemish.syringe.ServiceConstruction")
+    @Label("Service Construction")
+    @Category("Syringe")
+    static final class ServiceConstruction extends Event {
+        @Label("Service Type")
+        String serviceType;
+
+        @Label("Implementation Type")
+        Class<?> implementationType;
+    }
+
+    @Name("dev.lukebemish.syringe.Instantiation")
+    @Label("Instantiator Invocation")
+    @Category("Syringe")
+    @StackTrace(false)
+    @Threshold("1 ms") // Fires for every injected instance; only the slow ones are interesting by default
+    static final class Instantiation extends Event {
+        @Label("Instantiated Type")
+        String instantiatedType;
+
+        @Label("Instantiator")
+        Class<?> instantiator;
+    }
+
+    // Checked before creating an instantiation event at all, as instantiation is on the hot path
+    static final EventType INSTANTIATION = EventType.getEventType(Instantiation.class);
+
+    @Name("dev.lukebemish.syringe.Pregeneration")
+    @Label("Pregeneration")
+    @Category("Syringe")
+    @Description("Generation of an implementation in the background while mods are loading")
+    @StackTrace(false)
+    static final class Pregeneration extends Event {
+        @Label("Mod ID")
+        String modId;
+
+        @Label("Injected Type")
+        Class<?> injectedType;
+    }
+
+    @Name("dev.lukebemish.syringe.ModConstruction")
+    @Label("Mod Construction")
+    @Category("Syringe")
+    static final class ModConstruction extends Event {
+        @Label("Mod ID")
+        String modId;
+    }
+}
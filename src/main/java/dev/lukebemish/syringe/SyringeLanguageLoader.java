@@ -1,6 +1,8 @@
 package dev.lukebemish.syringe;
 
 import com.google.auto.service.AutoService;
+import dev.lukebemish.syringe.annotations.Inject;
+import dev.lukebemish.syringe.annotations.Label;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.ModLoadingException;
 import net.neoforged.fml.common.Mod;
@@ -9,12 +11,22 @@
 import net.neoforged.neoforgespi.language.IModInfo;
 import net.neoforged.neoforgespi.language.IModLanguageLoader;
 import net.neoforged.neoforgespi.language.ModFileScanData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.lang.annotation.ElementType;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 @AutoService(IModLanguageLoader.class)
 public class SyringeLanguageLoader implements IModLanguageLoader {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Executor PREGENERATION_EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("syringe-pregeneration-", 0).factory());
+
     @Override
     public String name() {
         return "syringe";
@@ -34,6 +46,55 @@ public ModContainer loadMod(IModInfo info, ModFileScanData modFileScanResults, M
                 .sorted(Comparator.comparingInt(ad -> -AutomaticEventSubscriber.getSides(ad.annotationData().get("dist")).size()))
                 .map(ad -> ad.clazz().getClassName())
                 .toList();
-        return new SyringeModContainer(info, modClasses, modFileScanResults, layer);
+        var container = new SyringeModContainer(info, modClasses, modFileScanResults, layer);
+        if (!Boolean.getBoolean("syringe.disablePregeneration")) {
+            pregenerate(info, modFileScanResults, layer, modClasses, container.startupReport());
+        }
+        return container;
+    }
+
+    // Generates implementations of the classes the mod is likely to instantiate while other mods are still loading, so
+    // that they are already generated by the time the mod is constructed. Only started once the container exists, so
+    // that bootstrapping has happened on the loading thread. Anything that cannot be generated here is left to fail, with
+    // context, when it is first used.
+    private static void pregenerate(IModInfo info, ModFileScanData modFileScanResults, ModuleLayer layer, List<String> modClasses, StartupReport report) {
+        var classNames = new LinkedHashSet<>(modClasses);
+        Stream.of(
+            modFileScanResults.getAnnotatedBy(Inject.class, ElementType.CONSTRUCTOR),
+            modFileScanResults.getAnnotatedBy(Inject.class, ElementType.METHOD),
+            modFileScanResults.getAnnotatedBy(Label.class, ElementType.METHOD)
+        ).flatMap(annotations -> annotations)
+                .map(ad -> ad.clazz().getClassName())
+                .forEach(classNames::add);
+        var loader = layer.findLoader(info.getOwningFile().moduleName());
+        PREGENERATION_EXECUTOR.execute(() -> {
+            // So that the classes generated here are counted against the mod
+            var previousReport = report.enter();
+            try {
+                for (var className : classNames) {
+                    try {
+                        // Not initialized, as constructing the mod is what should run its static initializers
+                        var clazz = Class.forName(className, false, loader);
+                        if (!clazz.isInterface()) {
+                            var event = new SyringeEvents.Pregeneration();
+                            event.begin();
+                            var start = System.nanoTime();
+                            ObjectFactoryImplementation.pregenerate(clazz);
+                            report.recordPregeneration(System.nanoTime() - start);
+                            event.end();
+                            if (event.shouldCommit()) {
+                                event.modId = info.getModId();
+                                event.injectedType = clazz;
+                                event.commit();
+                            }
+                        }
+                    } catch (ClassNotFoundException | RuntimeException | LinkageError e) {
+                        LOGGER.debug("Could not pregenerate implementation of {} for mod {}", className, info.getModId(), e);
+                    }
+                }
+            } finally {
+                report.exit(previousReport);
+            }
+        });
     }
 }
@@ -0,0 +1,110 @@
+package dev.lukebemish.syringe;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime metrics for the injection engine. Collection is enabled with the {@code syringe.metrics} system property; when
+ * disabled, the checks for it are constant and recording costs nothing.
+ */
+public final class SyringeMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("syringe.metrics");
+
+    static final Recorder IMPLEMENTATIONS = new Recorder();
+    static final LongAdder CREATOR_HITS = new LongAdder();
+    static final LongAdder CREATOR_MISSES = new LongAdder();
+    static final Recorder DELAYED_INITIALIZATIONS = new Recorder();
+    static final Recorder LAZY_INITIALIZATIONS = new Recorder();
+    static final Map<Class<?>, Recorder> INSTANTIATIONS = new ConcurrentHashMap<>();
+
+    private SyringeMetrics() {}
+
+    /**
+     * A number of timed operations. Bucket {@code i} of the histogram counts operations that took at least {@code 2^i}
+     * and less than {@code 2^(i+1)} nanoseconds.
+     */
+    public record Timing(long count, long totalNanos, List<Long> histogram) {
+        public Timing {
+            histogram = List.copyOf(histogram);
+        }
+    }
+
+    public record FactorySnapshot(int depth, long serviceLookups, long serviceMisses, Map<String, Timing> instantiations) {}
+
+    public record Snapshot(
+        Timing implementations,
+        long creatorCacheHits,
+        long creatorCacheMisses,
+        Timing delayedInitializations,
+        Timing lazyInitializations,
+        Map<String, Timing> instantiations
+    ) {}
+
+    public static Snapshot snapshot() {
+        return new Snapshot(
+            IMPLEMENTATIONS.snapshot(),
+            CREATOR_HITS.sum(),
+            CREATOR_MISSES.sum(),
+            DELAYED_INITIALIZATIONS.snapshot(),
+            LAZY_INITIALIZATIONS.snapshot(),
+            snapshot(INSTANTIATIONS)
+        );
+    }
+
+    public static FactorySnapshot snapshot(ObjectFactory factory) {
+        if (!(factory instanceof ObjectFactoryImplementation implementation)) {
+            throw new IllegalArgumentException("Not a Syringe object factory: "+factory);
+        }
+        var metrics = implementation.metrics();
+        if (metrics == null) {
+            return new FactorySnapshot(implementation.depth(), 0, 0, Map.of());
+        }
+        return new FactorySnapshot(implementation.depth(), metrics.lookups.sum(), metrics.misses.sum(), snapshot(metrics.instantiations));
+    }
+
+    private static Map<String, Timing> snapshot(Map<Class<?>, Recorder> recorders) {
+        var timings = new HashMap<String, Timing>();
+        recorders.forEach((clazz, recorder) -> timings.put(clazz.getName(), recorder.snapshot()));
+        return Map.copyOf(timings);
+    }
+
+    static final class Recorder {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(Long.SIZE);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            histogram.incrementAndGet(nanos <= 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos));
+        }
+
+        Timing snapshot() {
+            // Trailing empty buckets are not interesting
+            var length = histogram.length();
+            while (length > 0 && histogram.get(length - 1) == 0) {
+                length--;
+            }
+            var buckets = new Long[length];
+            for (int i = 0; i < length; i++) {
+                buckets[i] = histogram.get(i);
+            }
+            return new Timing(count.sum(), totalNanos.sum(), List.of(buckets));
+        }
+    }
+
+    static final class FactoryMetrics {
+        final LongAdder lookups = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final Map<Class<?>, Recorder> instantiations = new ConcurrentHashMap<>();
+
+        void recordInstantiation(Class<?> clazz, long nanos) {
+            instantiations.computeIfAbsent(clazz, c -> new Recorder()).record(nanos);
+            INSTANTIATIONS.computeIfAbsent(clazz, c -> new Recorder()).record(nanos);
+        }
+    }
+}
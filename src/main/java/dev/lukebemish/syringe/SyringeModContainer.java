@@ -8,16 +8,21 @@
 import net.neoforged.fml.ModLoadingContext;
 import net.neoforged.fml.ModLoadingException;
 import net.neoforged.fml.ModLoadingIssue;
+import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.fml.event.IModBusEvent;
 import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.fml.loading.modscan.ModAnnotation;
 import net.neoforged.neoforgespi.language.IModInfo;
 import net.neoforged.neoforgespi.language.ModFileScanData;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jspecify.annotations.Nullable;
 
+import java.lang.annotation.ElementType;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 class SyringeModContainer extends ModContainer {
     private static final Logger LOGGER = LogManager.getLogger();
@@ -26,8 +31,10 @@ class SyringeModContainer extends ModContainer {
     private final IEventBus eventBus;
     private final Module module;
     private final ObjectFactory.Configuration objectFactoryConfiguration;
+    private @Nullable ObjectFactoryImplementation serviceFactory;
     private @Nullable ObjectFactoryImplementation objectFactory;
     private final List<Class<?>> modClasses;
+    private final StartupReport startupReport;
 
     public SyringeModContainer(IModInfo info, List<String> entrypoints, ModFileScanData scanResults, ModuleLayer gameLayer) {
         super(info);
@@ -46,16 +53,21 @@ public SyringeModContainer(IModInfo info, List<String> entrypoints, ModFileScanD
         this.objectFactoryConfiguration.bindService(IEventBus.class, eventBus);
         this.objectFactoryConfiguration.bindService(ModContainer.class, this);
         this.objectFactoryConfiguration.bindService(Dist.class, FMLLoader.getDist());
+        this.startupReport = new StartupReport(info.getModId());
 
         // Load classes
         var context = ModLoadingContext.get();
+        var previousReport = startupReport.enter();
         try {
             context.setActiveContainer(this);
 
+            var start = System.nanoTime();
             for (var discoverer : Bootstrap.PER_MOD) {
                 discoverer.configure(this.objectFactoryConfiguration);
             }
+            startupReport.record(StartupReport.Phase.DISCOVERERS, start);
 
+            start = System.nanoTime();
             modClasses = new ArrayList<>();
 
             for (var entrypoint : entrypoints) {
@@ -67,32 +79,112 @@ public SyringeModContainer(IModInfo info, List<String> entrypoints, ModFileScanD
                     throw new ModLoadingException(ModLoadingIssue.error("fml.modloadingissue.failedtoloadmodclass").withCause(e).withAffectedMod(info));
                 }
             }
+            startupReport.record(StartupReport.Phase.CLASS_LOADING, start);
         } finally {
             context.setActiveContainer(null);
+            startupReport.exit(previousReport);
         }
+        startupReport.register();
+    }
+
+    StartupReport startupReport() {
+        return startupReport;
     }
 
     private final Object constructionLock = new Object();
 
     @Override
     protected void constructMod() {
-        synchronized (this.constructionLock) {
-            if (this.objectFactory != null) {
-                LOGGER.error("Mod was already constructed. ModID: {}", getModId());
-                throw new IllegalStateException("Mod already constructed");
+        var event = new SyringeEvents.ModConstruction();
+        event.begin();
+        var previousReport = startupReport.enter();
+        try {
+            synchronized (this.constructionLock) {
+                if (this.objectFactory != null) {
+                    LOGGER.error("Mod was already constructed. ModID: {}", getModId());
+                    throw new IllegalStateException("Mod already constructed");
+                }
+                var start = System.nanoTime();
+                this.serviceFactory = Bootstrap.ROOT.newObjectFactory(this.objectFactoryConfiguration);
+                startupReport.record(StartupReport.Phase.SERVICE_FACTORY, start);
+                start = System.nanoTime();
+                var modConfiguration = ObjectFactory.Configuration.create();
+                for (var modClass : modClasses) {
+                    modConfiguration.bindService(modClass);
+                }
+                this.objectFactory = this.serviceFactory.newObjectFactory(modConfiguration);
+                startupReport.record(StartupReport.Phase.MOD_FACTORY, start);
             }
-            var serviceFactory = Bootstrap.ROOT.newObjectFactory(this.objectFactoryConfiguration);
-            var modConfiguration = ObjectFactory.Configuration.create();
+            var start = System.nanoTime();
             for (var modClass : modClasses) {
-                modConfiguration.bindService(modClass);
+                var ignored = this.objectFactory.findService(modClass);
             }
-            this.objectFactory = serviceFactory.newObjectFactory(modConfiguration);
+            startupReport.record(StartupReport.Phase.MOD_SERVICES, start);
+            start = System.nanoTime();
+            registerEventBusSubscribers();
+            startupReport.record(StartupReport.Phase.EVENT_SUBSCRIBERS, start);
+        } finally {
+            startupReport.exit(previousReport);
+            // Failed mods count too, or the report would wait on them forever
+            startupReport.constructed();
         }
-        for (var modClass : modClasses) {
-            var ignored = this.objectFactory.findService(modClass);
+        event.end();
+        if (event.shouldCommit()) {
+            event.modId = getModId();
+            event.commit();
         }
+        if (Bootstrap.CACHE != null) {
+            LOGGER.debug("Constructed mod {}; {}", getModId(), Bootstrap.CACHE);
+        }
+        // Only now, so that warming up lazy services does not compete with constructing the mod
+        Objects.requireNonNull(this.serviceFactory).startWarmUp();
+        this.objectFactory.startWarmUp();
+    }
 
-        // TODO: EBS
+    @SuppressWarnings("unchecked")
+    private void registerEventBusSubscribers() {
+        var objectFactory = Objects.requireNonNull(this.objectFactory);
+        var dist = FMLLoader.getDist().name();
+        // Load every subscriber before registering any, so a missing class fails before any handlers are added
+        var subscribers = new ArrayList<Map.Entry<IEventBus, Class<?>>>();
+        for (var annotation : scanResults.getAnnotatedBy(EventBusSubscriber.class, ElementType.TYPE).toList()) {
+            var data = annotation.annotationData();
+            var sides = (List<ModAnnotation.EnumHolder>) data.get("value");
+            if (!getModId().equals(data.getOrDefault("modid", getModId())) || (sides != null && sides.stream().noneMatch(side -> side.value().equals(dist)))) {
+                continue;
+            }
+            var busHolder = (ModAnnotation.EnumHolder) data.get("bus");
+            var bus = busHolder == null ? EventBusSubscriber.Bus.GAME : EventBusSubscriber.Bus.valueOf(busHolder.value());
+            var className = annotation.clazz().getClassName();
+            var cls = Class.forName(module, className);
+            if (cls == null) {
+                LOGGER.error("Failed to load event bus subscriber {}", className);
+                throw new ModLoadingException(ModLoadingIssue.error("fml.modloadingissue.failedtoloadmodclass").withAffectedMod(getModInfo()));
+            }
+            subscribers.add(Map.entry(bus == EventBusSubscriber.Bus.MOD ? eventBus : bus.bus().get(), cls));
+        }
+
+        int count = 0;
+        for (var subscriber : subscribers) {
+            var bus = subscriber.getKey();
+            var cls = subscriber.getValue();
+            try {
+                count += SuperclassAllowingEventBus.addListeners(bus, cls, null).size();
+                // Instances are only created for subscribers with instance handlers, through the mod's factory; mod classes
+                // that are also subscribers reuse the mod instance
+                if (SuperclassAllowingEventBus.hasListeners(cls, false)) {
+                    var instance = modClasses.contains(cls) ? objectFactory.findService(cls) : objectFactory.newInstance(cls);
+                    var consumers = bus instanceof SuperclassAllowingEventBus syringeBus
+                        ? syringeBus.registerInstance(instance)
+                        : SuperclassAllowingEventBus.addListeners(bus, instance.getClass(), instance);
+                    count += consumers.size();
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to register event bus subscriber {}", cls.getName(), e);
+                throw new ModLoadingException(ModLoadingIssue.error("fml.modloadingissue.failedtoloadmodclass").withCause(e).withAffectedMod(getModInfo()));
+            }
+        }
+        LOGGER.debug("Registered {} handlers from {} event bus subscribers for mod {}", count, subscribers.size(), getModId());
     }
 
     @Override
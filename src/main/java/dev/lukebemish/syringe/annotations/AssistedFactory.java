@@ -0,0 +1,16 @@
+package dev.lukebemish.syringe.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface with a single abstract method as a factory that Syringe implements. Calling the method creates an
+ * instance of its return type, passing the method's parameters as the first parameters of the injected constructor and
+ * injecting the rest, as {@code newInstance} would. The interface may be injected or instantiated like any other type.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AssistedFactory {
+}
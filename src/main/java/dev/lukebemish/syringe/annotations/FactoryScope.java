@@ -0,0 +1,20 @@
+package dev.lukebemish.syringe.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a type as having at most one instance per object factory. The first time a factory is asked for a new instance
+ * of the type, including through an instantiation getter, it is constructed; later requests to the same factory
+ * return that instance. Scoped types cannot be instantiated with manual arguments.
+ * <p>
+ * Instances are kept per full type, so each parameterization of a generic scoped type, such as {@code Box<String>} and
+ * {@code Box<Integer>}, has its own instance. A scoped type may not depend on itself while being constructed, directly or
+ * through other scoped types; doing so fails rather than creating a second instance.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface FactoryScope {
+}
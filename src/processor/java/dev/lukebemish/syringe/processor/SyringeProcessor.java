@@ -0,0 +1,625 @@
+package dev.lukebemish.syringe.processor;
+
+import com.google.auto.service.AutoService;
+import org.jspecify.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.SequencedMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates, at compile time, the implementations that Syringe would otherwise generate at runtime. Classes that cannot
+ * be handled here are skipped, and are instead generated (and any errors reported) at runtime.
+ */
+@AutoService(Processor.class)
+public class SyringeProcessor extends AbstractProcessor {
+    // Must match the suffix used by the runtime
+    private static final String FACTORY_SUFFIX = "$SyringeFactory";
+    private static final String IMPLEMENTATION_SUFFIX = "$SyringeImplementation";
+    private static final String CREATE = "$syringe_create";
+    private static final String INVOKE = "$syringe_invoke";
+    private static final String METADATA = "$syringe_metadata";
+
+    private static final String INJECT = "dev.lukebemish.syringe.annotations.Inject";
+    private static final String LABEL = "dev.lukebemish.syringe.annotations.Label";
+    private static final String PROVIDER = "dev/lukebemish/syringe/Provider";
+
+    private static final Set<TypeKind> PRIMITIVE_KINDS = Set.of(TypeKind.INT, TypeKind.LONG, TypeKind.DOUBLE, TypeKind.BOOLEAN);
+
+    private final Set<String> generated = new HashSet<>();
+
+    private record Getter(String name, TypeMirror type, boolean isPublic, @Nullable String label) {}
+
+    private record Layout(TypeElement type, ExecutableElement constructor, List<Getter> injected, List<Getter> implemented, List<Getter> primitives, boolean direct) {}
+
+    private static final class IneligibleException extends Exception {}
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(INJECT, LABEL);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        var types = new LinkedHashSet<TypeElement>();
+        for (var element : roundEnv.getRootElements()) {
+            collectTypes(element, types);
+        }
+        for (var type : types) {
+            var binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+            if (generated.contains(binaryName)) {
+                continue;
+            }
+            try {
+                var layout = layout(type);
+                if (layout == null) {
+                    continue;
+                }
+                var implementation = layout.direct() ? null : implementation(layout, binaryName);
+                var factory = factory(layout, binaryName);
+                generated.add(binaryName);
+                if (implementation != null) {
+                    write(binaryName+IMPLEMENTATION_SUFFIX, type, implementation);
+                }
+                write(binaryName+FACTORY_SUFFIX, type, factory);
+            } catch (IneligibleException ignored) {
+                // Left for the runtime to generate, or to report errors for
+            }
+        }
+        return false;
+    }
+
+    private static void collectTypes(Element element, Set<TypeElement> types) {
+        if (element.getKind() == ElementKind.CLASS) {
+            types.add((TypeElement) element);
+        }
+        for (var enclosed : element.getEnclosedElements()) {
+            if (enclosed instanceof TypeElement) {
+                collectTypes(enclosed, types);
+            }
+        }
+    }
+
+    private void write(String binaryName, TypeElement originating, byte[] bytes) {
+        try (var output = processingEnv.getFiler().createClassFile(binaryName, originating).openOutputStream()) {
+            output.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private @Nullable Layout layout(TypeElement type) throws IneligibleException {
+        var modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || !type.getTypeParameters().isEmpty()) {
+            return null;
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL && (type.getNestingKind() != NestingKind.MEMBER || !modifiers.contains(Modifier.STATIC))) {
+            return null;
+        }
+
+        boolean annotated = false;
+        ExecutableElement targetCtor = null;
+        ExecutableElement noArgCtor = null;
+        for (var ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!ctor.getModifiers().contains(Modifier.PROTECTED) && !ctor.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            if (ctor.getParameters().isEmpty()) {
+                noArgCtor = ctor;
+            } else if (annotation(ctor, INJECT) != null) {
+                if (targetCtor != null) {
+                    throw new IneligibleException();
+                }
+                targetCtor = ctor;
+                annotated = true;
+            }
+        }
+        if (targetCtor == null) {
+            if (noArgCtor == null) {
+                throw new IneligibleException();
+            }
+            targetCtor = noArgCtor;
+        }
+        for (var param : targetCtor.getParameters()) {
+            checkType(param.asType());
+        }
+
+        var methodMap = new LinkedHashMap<String, ExecutableElement>();
+        collectMethods(type, methodMap);
+        var injected = new TreeMap<String, Getter>();
+        var implemented = new TreeMap<String, Getter>();
+        var primitives = new TreeMap<String, Getter>();
+        for (var method : methodMap.values()) {
+            var methodModifiers = method.getModifiers();
+            var name = method.getSimpleName().toString();
+            var returnType = method.getReturnType();
+            if (annotation(method, INJECT) != null) {
+                annotated = true;
+                if (methodModifiers.contains(Modifier.FINAL) || (!methodModifiers.contains(Modifier.PROTECTED) && !methodModifiers.contains(Modifier.PUBLIC))) {
+                    throw new IneligibleException();
+                }
+                if (!method.getParameters().isEmpty()) {
+                    throw new IneligibleException();
+                }
+                if (returnType.getKind().isPrimitive()) {
+                    if (!PRIMITIVE_KINDS.contains(returnType.getKind()) || injected.containsKey(name) || implemented.containsKey(name)) {
+                        throw new IneligibleException();
+                    }
+                    checkSameType(primitives.get(name), returnType);
+                    primitives.putIfAbsent(name, new Getter(name, returnType, methodModifiers.contains(Modifier.PUBLIC), label(method)));
+                    continue;
+                }
+                if (primitives.containsKey(name)) {
+                    throw new IneligibleException();
+                }
+                checkType(returnType);
+                checkSameType(injected.get(name), returnType);
+                checkSameType(implemented.remove(name), returnType);
+                injected.put(name, new Getter(name, returnType, methodModifiers.contains(Modifier.PUBLIC), null));
+            } else if (methodModifiers.contains(Modifier.ABSTRACT)) {
+                if (!methodModifiers.contains(Modifier.PROTECTED) && !methodModifiers.contains(Modifier.PUBLIC)) {
+                    throw new IneligibleException();
+                }
+                if (!method.getParameters().isEmpty()) {
+                    throw new IneligibleException();
+                }
+                if (returnType.getKind().isPrimitive()) {
+                    checkSameType(primitives.get(name), returnType);
+                    if (primitives.containsKey(name)) {
+                        continue;
+                    }
+                    throw new IneligibleException();
+                }
+                checkType(returnType);
+                var label = label(method);
+                if (label != null) {
+                    annotated = true;
+                }
+                if (injected.containsKey(name)) {
+                    checkSameType(injected.get(name), returnType);
+                    continue;
+                }
+                checkSameType(implemented.get(name), returnType);
+                implemented.put(name, new Getter(name, returnType, methodModifiers.contains(Modifier.PUBLIC), label));
+            }
+        }
+
+        if (!annotated) {
+            return null;
+        }
+        var direct = injected.isEmpty() && primitives.isEmpty() && targetCtor.getModifiers().contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.ABSTRACT);
+        if (!direct && modifiers.contains(Modifier.FINAL)) {
+            throw new IneligibleException();
+        }
+        return new Layout(type, targetCtor, List.copyOf(injected.values()), List.copyOf(implemented.values()), List.copyOf(primitives.values()), direct);
+    }
+
+    private void collectMethods(TypeElement type, SequencedMap<String, ExecutableElement> methods) throws IneligibleException {
+        for (var method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            var descriptor = new StringBuilder(method.getSimpleName()).append('(');
+            for (var param : method.getParameters()) {
+                descriptor.append(descriptor(param.asType()));
+            }
+            descriptor.append(')').append(descriptor(method.getReturnType()));
+            var key = descriptor.toString();
+            var existing = methods.get(key);
+            if (existing == null || (!method.getModifiers().contains(Modifier.ABSTRACT) && existing.getModifiers().contains(Modifier.ABSTRACT))) {
+                methods.put(key, method);
+            }
+        }
+        var superclass = type.getSuperclass();
+        if (superclass.getKind() == TypeKind.DECLARED) {
+            var superElement = (TypeElement) ((DeclaredType) superclass).asElement();
+            if (superElement.getModifiers().contains(Modifier.ABSTRACT)) {
+                collectMethods(superElement, methods);
+            }
+        }
+        for (var interfaceType : type.getInterfaces()) {
+            collectMethods((TypeElement) ((DeclaredType) interfaceType).asElement(), methods);
+        }
+    }
+
+    private void checkSameType(@Nullable Getter existing, TypeMirror type) throws IneligibleException {
+        if (existing != null && !processingEnv.getTypeUtils().isSameType(existing.type(), type)) {
+            throw new IneligibleException();
+        }
+    }
+
+    // Syringe can only inject fully evaluated types
+    private static void checkType(TypeMirror type) throws IneligibleException {
+        switch (type.getKind()) {
+            case DECLARED -> {
+                for (var argument : ((DeclaredType) type).getTypeArguments()) {
+                    checkType(argument);
+                }
+            }
+            case ARRAY -> checkType(((ArrayType) type).getComponentType());
+            case BOOLEAN, BYTE, CHAR, SHORT, INT, LONG, FLOAT, DOUBLE -> {}
+            default -> throw new IneligibleException();
+        }
+    }
+
+    private static @Nullable AnnotationMirror annotation(Element element, String name) {
+        for (var mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(name)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable String label(Element element) {
+        var mirror = annotation(element, LABEL);
+        if (mirror == null) {
+            return null;
+        }
+        for (var entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                return (String) entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private String descriptor(TypeMirror type) throws IneligibleException {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "Z";
+            case BYTE -> "B";
+            case CHAR -> "C";
+            case SHORT -> "S";
+            case INT -> "I";
+            case LONG -> "J";
+            case FLOAT -> "F";
+            case DOUBLE -> "D";
+            case VOID -> "V";
+            case ARRAY -> "["+descriptor(((ArrayType) type).getComponentType());
+            case DECLARED -> "L"+internalName((TypeElement) ((DeclaredType) type).asElement())+";";
+            case TYPEVAR -> descriptor(processingEnv.getTypeUtils().erasure(type));
+            default -> throw new IneligibleException();
+        };
+    }
+
+    private String internalName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString().replace('.', '/');
+    }
+
+    private List<String> constructorDescriptors(Layout layout) throws IneligibleException {
+        var descriptors = new ArrayList<String>();
+        for (var param : layout.constructor().getParameters()) {
+            descriptors.add(descriptor(param.asType()));
+        }
+        for (var ignored : layout.injected()) {
+            descriptors.add("L"+PROVIDER+";");
+        }
+        for (var getter : layout.implemented()) {
+            descriptors.add(descriptor(getter.type()));
+        }
+        for (var getter : layout.primitives()) {
+            descriptors.add(descriptor(getter.type()));
+        }
+        return descriptors;
+    }
+
+    private byte[] implementation(Layout layout, String binaryName) throws IneligibleException {
+        var name = (binaryName+IMPLEMENTATION_SUFFIX).replace('.', '/');
+        var superName = internalName(layout.type());
+        var writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V21, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, name, null, superName, null);
+
+        // Services already present at construction are also stored directly, as at runtime
+        for (var getter : layout.injected()) {
+            var fieldName = "$syringe_injected_field$"+getter.name();
+            var valueFieldName = "$syringe_injected_value$"+getter.name();
+            var erased = processingEnv.getTypeUtils().erasure(getter.type());
+            writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, fieldName, "L"+PROVIDER+";", null, null).visitEnd();
+            writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, valueFieldName, descriptor(erased), null, null).visitEnd();
+            var methodImpl = writer.visitMethod((getter.isPublic() ? Opcodes.ACC_PUBLIC : Opcodes.ACC_PROTECTED) | Opcodes.ACC_FINAL, getter.name(), "()"+descriptor(erased), null, null);
+            methodImpl.visitCode();
+            var deferred = new Label();
+            methodImpl.visitVarInsn(Opcodes.ALOAD, 0);
+            methodImpl.visitFieldInsn(Opcodes.GETFIELD, name, valueFieldName, descriptor(erased));
+            methodImpl.visitJumpInsn(Opcodes.IFNULL, deferred);
+            methodImpl.visitVarInsn(Opcodes.ALOAD, 0);
+            methodImpl.visitFieldInsn(Opcodes.GETFIELD, name, valueFieldName, descriptor(erased));
+            methodImpl.visitInsn(Opcodes.ARETURN);
+            methodImpl.visitLabel(deferred);
+            methodImpl.visitFrame(Opcodes.F_NEW, 1, new Object[] {name}, 0, new Object[0]);
+            methodImpl.visitVarInsn(Opcodes.ALOAD, 0);
+            methodImpl.visitFieldInsn(Opcodes.GETFIELD, name, fieldName, "L"+PROVIDER+";");
+            methodImpl.visitMethodInsn(Opcodes.INVOKEINTERFACE, PROVIDER, "get", "()Ljava/lang/Object;", true);
+            methodImpl.visitTypeInsn(Opcodes.CHECKCAST, Type.getType(descriptor(erased)).getInternalName());
+            methodImpl.visitInsn(Opcodes.ARETURN);
+            methodImpl.visitMaxs(0, 0);
+            methodImpl.visitEnd();
+        }
+
+        var fieldGetters = new ArrayList<Getter>(layout.implemented());
+        fieldGetters.addAll(layout.primitives());
+        for (var getter : fieldGetters) {
+            var fieldName = "$syringe_injected_field$"+getter.name();
+            var fieldDescriptor = descriptor(getter.type());
+            writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, fieldName, fieldDescriptor, null, null).visitEnd();
+            var methodImpl = writer.visitMethod((getter.isPublic() ? Opcodes.ACC_PUBLIC : Opcodes.ACC_PROTECTED) | Opcodes.ACC_FINAL, getter.name(), "()"+fieldDescriptor, null, null);
+            methodImpl.visitCode();
+            methodImpl.visitVarInsn(Opcodes.ALOAD, 0);
+            methodImpl.visitFieldInsn(Opcodes.GETFIELD, name, fieldName, fieldDescriptor);
+            methodImpl.visitInsn(Type.getType(fieldDescriptor).getOpcode(Opcodes.IRETURN));
+            methodImpl.visitMaxs(0, 0);
+            methodImpl.visitEnd();
+        }
+
+        var descriptors = constructorDescriptors(layout);
+        var ctor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "("+String.join("", descriptors)+")V", null, null);
+        ctor.visitCode();
+        var targetParams = layout.constructor().getParameters().size();
+        int index = 1;
+        for (int i = 0; i < targetParams; i++) {
+            index += Type.getType(descriptors.get(i)).getSize();
+        }
+        // Fields are assigned before the super constructor is called, so that getters work within it
+        var frameLocals = new ArrayList<Object>();
+        frameLocals.add(Opcodes.UNINITIALIZED_THIS);
+        for (var descriptor : descriptors) {
+            frameLocals.add(frameType(Type.getType(descriptor)));
+        }
+        for (var getter : layout.injected()) {
+            var erased = descriptor(processingEnv.getTypeUtils().erasure(getter.type()));
+            var deferred = new Label();
+            ctor.visitVarInsn(Opcodes.ALOAD, index);
+            ctor.visitMethodInsn(Opcodes.INVOKEINTERFACE, PROVIDER, "isPresent", "()Z", true);
+            ctor.visitJumpInsn(Opcodes.IFEQ, deferred);
+            ctor.visitVarInsn(Opcodes.ALOAD, 0);
+            ctor.visitVarInsn(Opcodes.ALOAD, index);
+            ctor.visitMethodInsn(Opcodes.INVOKEINTERFACE, PROVIDER, "get", "()Ljava/lang/Object;", true);
+            ctor.visitTypeInsn(Opcodes.CHECKCAST, Type.getType(erased).getInternalName());
+            ctor.visitFieldInsn(Opcodes.PUTFIELD, name, "$syringe_injected_value$"+getter.name(), erased);
+            ctor.visitLabel(deferred);
+            ctor.visitFrame(Opcodes.F_NEW, frameLocals.size(), frameLocals.toArray(), 0, new Object[0]);
+            ctor.visitVarInsn(Opcodes.ALOAD, 0);
+            ctor.visitVarInsn(Opcodes.ALOAD, index);
+            ctor.visitFieldInsn(Opcodes.PUTFIELD, name, "$syringe_injected_field$"+getter.name(), "L"+PROVIDER+";");
+            index++;
+        }
+        for (int i = 0; i < fieldGetters.size(); i++) {
+            var fieldDescriptor = descriptors.get(targetParams+layout.injected().size()+i);
+            var type = Type.getType(fieldDescriptor);
+            ctor.visitVarInsn(Opcodes.ALOAD, 0);
+            ctor.visitVarInsn(type.getOpcode(Opcodes.ILOAD), index);
+            ctor.visitFieldInsn(Opcodes.PUTFIELD, name, "$syringe_injected_field$"+fieldGetters.get(i).name(), fieldDescriptor);
+            index += type.getSize();
+        }
+        ctor.visitVarInsn(Opcodes.ALOAD, 0);
+        index = 1;
+        var superDescriptor = new StringBuilder("(");
+        for (int i = 0; i < targetParams; i++) {
+            var type = Type.getType(descriptors.get(i));
+            ctor.visitVarInsn(type.getOpcode(Opcodes.ILOAD), index);
+            index += type.getSize();
+            superDescriptor.append(descriptors.get(i));
+        }
+        ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", superDescriptor.append(")V").toString(), false);
+        ctor.visitInsn(Opcodes.RETURN);
+        ctor.visitMaxs(0, 0);
+        ctor.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private byte[] factory(Layout layout, String binaryName) throws IneligibleException {
+        var name = (binaryName+FACTORY_SUFFIX).replace('.', '/');
+        var targetName = internalName(layout.type());
+        var instanceName = layout.direct() ? targetName : (binaryName+IMPLEMENTATION_SUFFIX).replace('.', '/');
+        var descriptors = layout.direct() ? constructorDescriptors(layout).subList(0, layout.constructor().getParameters().size()) : constructorDescriptors(layout);
+        var parameters = String.join("", descriptors);
+
+        var writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(
+            Opcodes.V21,
+            Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+            name,
+            null,
+            "java/lang/Object",
+            null
+        );
+
+        var createDescriptor = "("+parameters+")L"+targetName+";";
+        var create = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, CREATE, createDescriptor, null, null);
+        create.visitCode();
+        create.visitTypeInsn(Opcodes.NEW, instanceName);
+        create.visitInsn(Opcodes.DUP);
+        int index = 0;
+        for (var descriptor : descriptors) {
+            var type = Type.getType(descriptor);
+            create.visitVarInsn(type.getOpcode(Opcodes.ILOAD), index);
+            index += type.getSize();
+        }
+        create.visitMethodInsn(Opcodes.INVOKESPECIAL, instanceName, "<init>", "("+parameters+")V", false);
+        create.visitInsn(Opcodes.ARETURN);
+        create.visitMaxs(0, 0);
+        create.visitEnd();
+
+        // The same entry points the runtime writes into the implementations it generates
+        var spread = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, INVOKE, "([Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+        spread.visitCode();
+        for (int i = 0; i < descriptors.size(); i++) {
+            spread.visitVarInsn(Opcodes.ALOAD, 0);
+            spread.visitLdcInsn(i);
+            spread.visitInsn(Opcodes.AALOAD);
+            convert(spread, Type.getType(descriptors.get(i)));
+        }
+        spread.visitMethodInsn(Opcodes.INVOKESTATIC, name, CREATE, createDescriptor, false);
+        spread.visitInsn(Opcodes.ARETURN);
+        spread.visitMaxs(0, 0);
+        spread.visitEnd();
+
+        var generic = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, INVOKE, "("+"Ljava/lang/Object;".repeat(descriptors.size())+")Ljava/lang/Object;", null, null);
+        generic.visitCode();
+        for (int i = 0; i < descriptors.size(); i++) {
+            generic.visitVarInsn(Opcodes.ALOAD, i);
+            convert(generic, Type.getType(descriptors.get(i)));
+        }
+        generic.visitMethodInsn(Opcodes.INVOKESTATIC, name, CREATE, createDescriptor, false);
+        generic.visitInsn(Opcodes.ARETURN);
+        generic.visitMaxs(0, 0);
+        generic.visitEnd();
+
+        var metadata = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, METADATA, "()Ljava/lang/String;", null, null);
+        metadata.visitCode();
+        metadata.visitLdcInsn(metadata(layout, parameters));
+        metadata.visitInsn(Opcodes.ARETURN);
+        metadata.visitMaxs(0, 0);
+        metadata.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    // Everything the runtime would otherwise collect reflectively, in the format of its own cache entries. Stored as a
+    // string constant, one char per byte, so that reading it needs no further class loading.
+    private String metadata(Layout layout, String parameters) throws IneligibleException {
+        var output = new ByteArrayOutputStream();
+        try (var data = new DataOutputStream(output)) {
+            var ctorParameters = layout.constructor().getParameters();
+            data.writeInt(ctorParameters.size());
+            writeString(data, "("+parameters+")V");
+            data.writeInt(ctorParameters.size()+layout.injected().size());
+            for (var param : ctorParameters) {
+                writeType(data, param.asType());
+            }
+            for (var getter : layout.injected()) {
+                writeString(data, "L"+PROVIDER+";");
+                data.writeInt(1);
+                writeType(data, getter.type());
+            }
+            data.writeInt(layout.implemented().size());
+            for (var getter : layout.implemented()) {
+                writeType(data, getter.type());
+                if (getter.label() == null) {
+                    data.writeInt(0);
+                } else {
+                    data.writeInt(1);
+                    writeString(data, getter.label());
+                }
+            }
+            data.writeInt(layout.primitives().size());
+            for (var getter : layout.primitives()) {
+                writeString(data, descriptor(getter.type()));
+                writeString(data, getter.label() == null ? getter.name() : getter.label());
+                writeString(data, getter.name());
+            }
+            data.writeInt(-1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        var metadata = new String(output.toByteArray(), StandardCharsets.ISO_8859_1);
+        // Constant pool strings are limited to 65535 bytes of modified UTF-8
+        int encodedLength = 0;
+        for (int i = 0; i < metadata.length(); i++) {
+            var c = metadata.charAt(i);
+            encodedLength += c == 0 || c >= 0x80 ? 2 : 1;
+        }
+        if (encodedLength > 65535) {
+            throw new IneligibleException();
+        }
+        return metadata;
+    }
+
+    private void writeType(DataOutputStream data, TypeMirror type) throws IOException, IneligibleException {
+        writeString(data, descriptor(type));
+        if (type.getKind() == TypeKind.DECLARED) {
+            var arguments = ((DeclaredType) type).getTypeArguments();
+            data.writeInt(arguments.size());
+            for (var argument : arguments) {
+                writeType(data, argument);
+            }
+        } else {
+            // The runtime cannot evaluate generic array types
+            checkRaw(type);
+            data.writeInt(0);
+        }
+    }
+
+    private static void checkRaw(TypeMirror type) throws IneligibleException {
+        if (type.getKind() == TypeKind.ARRAY) {
+            checkRaw(((ArrayType) type).getComponentType());
+        } else if (type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty()) {
+            throw new IneligibleException();
+        }
+    }
+
+    private static void writeString(DataOutputStream data, String string) throws IOException {
+        var bytes = string.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static void convert(MethodVisitor visitor, Type type) {
+        var boxed = switch (type.getSort()) {
+            case Type.BOOLEAN -> "java/lang/Boolean";
+            case Type.BYTE -> "java/lang/Byte";
+            case Type.CHAR -> "java/lang/Character";
+            case Type.SHORT -> "java/lang/Short";
+            case Type.INT -> "java/lang/Integer";
+            case Type.LONG -> "java/lang/Long";
+            case Type.FLOAT -> "java/lang/Float";
+            case Type.DOUBLE -> "java/lang/Double";
+            default -> null;
+        };
+        if (boxed != null) {
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, boxed);
+            visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, boxed, type.getClassName()+"Value", "()"+type.getDescriptor(), false);
+        } else if (!type.getInternalName().equals("java/lang/Object")) {
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, type.getInternalName());
+        }
+    }
+
+    private static Object frameType(Type type) {
+        return switch (type.getSort()) {
+            case Type.BOOLEAN, Type.BYTE, Type.CHAR, Type.SHORT, Type.INT -> Opcodes.INTEGER;
+            case Type.LONG -> Opcodes.LONG;
+            case Type.FLOAT -> Opcodes.FLOAT;
+            case Type.DOUBLE -> Opcodes.DOUBLE;
+            default -> type.getInternalName();
+        };
+    }
+}
@@ -0,0 +1,6 @@
+@ApiStatus.Internal
+@NullMarked
+package dev.lukebemish.syringe.processor;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jspecify.annotations.NullMarked;
@@ -1,17 +1,27 @@
 package dev.lukebemish.syringe.test;
 
 import dev.lukebemish.syringe.ObjectFactory;
+import dev.lukebemish.syringe.annotations.AssistedFactory;
+import dev.lukebemish.syringe.annotations.FactoryScope;
 import dev.lukebemish.syringe.annotations.Inject;
 import dev.lukebemish.syringe.annotations.Label;
 import net.minecraft.world.item.Item;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.ModContainer;
+import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.registries.DeferredRegister;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Mod("syringe_testmod")
 public abstract class TestMod {
@@ -29,6 +39,7 @@ public TestMod(ModContainer modContainer, ObjectFactory objectFactory) {
 
         var options = ObjectFactory.Configuration.create();
         options.bindService(ScopedService.class, ScopedService.class, "scopedService");
+        options.bindInt("answer", 42);
         var scopedObjectFactory = objectFactory.newObjectFactory(options);
 
         var innerThingy = scopedObjectFactory.newInstance(InnerThingy.class, "innerThingy");
@@ -36,14 +47,97 @@ public TestMod(ModContainer modContainer, ObjectFactory objectFactory) {
         if (!innerThingy.name.equals("innerThingy")) {
             throw new IllegalStateException("InnerThingy name is not 'innerThingy'");
         }
+        if (innerThingy.getAnswer() != 42) {
+            throw new IllegalStateException("InnerThingy answer is not 42");
+        }
+        if (innerThingy.getFactoryScoped() != scopedObjectFactory.newInstance(FactoryScoped.class)) {
+            throw new IllegalStateException("FactoryScoped was not shared within its factory");
+        }
+        if (innerThingy.getFactoryScoped() == objectFactory.newInstance(FactoryScoped.class)) {
+            throw new IllegalStateException("FactoryScoped was shared between factories");
+        }
 
         getEventBus().register(innerThingy);
 
+        // Interfaces passed to newInstance are implemented as assisted factories
+        var assistedThingy = scopedObjectFactory.newInstance(AssistedThingyFactory.class).create("assistedThingy");
+        Objects.requireNonNull(assistedThingy);
+        if (!assistedThingy.name.equals("assistedThingy")) {
+            throw new IllegalStateException("AssistedThingy name is not 'assistedThingy'");
+        }
+        if (assistedThingy.scopedService != scopedObjectFactory.findService(ScopedService.class)) {
+            throw new IllegalStateException("AssistedThingy was not injected with the scoped service");
+        }
+        if (!assistedThingy.getInnerThingy().name.equals("assistedInner")) {
+            throw new IllegalStateException("AssistedThingy inner thingy name is not 'assistedInner'");
+        }
+
+        checkConcurrentInstantiation(scopedObjectFactory);
+        checkContributions(objectFactory);
+
         getItemRegister().register("testitem", () -> new Item(new Item.Properties()));
 
         System.out.println("Syringe test mod successfully loaded");
     }
 
+    private static void checkConcurrentInstantiation(ObjectFactory objectFactory) {
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var futures = new ArrayList<Future<InnerThingy>>();
+            for (int i = 0; i < 64; i++) {
+                var name = "concurrent" + i;
+                futures.add(executor.submit(() -> objectFactory.newInstance(InnerThingy.class, name)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                var instance = futures.get(i).get();
+                if (!instance.name.equals("concurrent" + i) || instance.getScopedService() != objectFactory.findService(ScopedService.class) || instance.getFactoryScoped() != futures.getFirst().get().getFactoryScoped()) {
+                    throw new IllegalStateException("Concurrently created InnerThingy was not injected correctly");
+                }
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void checkContributions(ObjectFactory objectFactory) {
+        var parentOptions = ObjectFactory.Configuration.create();
+        parentOptions.contributeToSet(String.class, "parent");
+        parentOptions.contributeToMap(String.class, String.class, "parent", "parent");
+        parentOptions.contributeToMap(String.class, String.class, "shared", "parent");
+        var parentObjectFactory = objectFactory.newObjectFactory(parentOptions);
+        // Contributions made after the factory is created must not reach it
+        parentOptions.contributeToSet(String.class, "late");
+
+        var childOptions = ObjectFactory.Configuration.create();
+        childOptions.contributeToSet(String.class, "child");
+        childOptions.contributeToMap(String.class, String.class, "child", "child");
+        childOptions.contributeToMap(String.class, String.class, "shared", "child");
+        var childObjectFactory = parentObjectFactory.newObjectFactory(childOptions);
+
+        var parentContributions = parentObjectFactory.newInstance(Contributions.class);
+        if (!new ArrayList<>(parentContributions.getNames()).equals(List.of("parent")) || !parentContributions.getEntries().equals(Map.of("parent", "parent", "shared", "parent"))) {
+            throw new IllegalStateException("Parent contributions were not injected correctly");
+        }
+        var childContributions = childObjectFactory.newInstance(Contributions.class);
+        if (!new ArrayList<>(childContributions.getNames()).equals(List.of("parent", "child")) || !childContributions.getEntries().equals(Map.of("parent", "parent", "child", "child", "shared", "child"))) {
+            throw new IllegalStateException("Child contributions were not merged with the parent's");
+        }
+    }
+
+    @EventBusSubscriber(modid = "syringe_testmod", bus = EventBusSubscriber.Bus.MOD)
+    public abstract static class Subscriber {
+        @Inject
+        protected abstract ModContainer getModContainer();
+
+        @SubscribeEvent
+        public void commonSetup(FMLCommonSetupEvent event) {
+            Objects.requireNonNull(getModContainer());
+            System.out.println("Subscriber common setup event");
+        }
+    }
+
     public abstract static class ScopedService {
         @Inject
         protected abstract ObjectFactory getObjectFactory();
@@ -54,6 +148,40 @@ public ScopedService(String name) {
         }
     }
 
+    public abstract static class Contributions {
+        @Inject
+        protected abstract Set<String> getNames();
+
+        @Inject
+        protected abstract Map<String, String> getEntries();
+    }
+
+    @AssistedFactory
+    public interface AssistedThingyFactory {
+        AssistedThingy create(String name);
+    }
+
+    public abstract static class AssistedThingy {
+        private final String name;
+        private final ScopedService scopedService;
+
+        @Label("assistedInner")
+        protected abstract InnerThingy getInnerThingy();
+
+        @Inject
+        public AssistedThingy(String name, ScopedService scopedService) {
+            this.name = name;
+            this.scopedService = scopedService;
+        }
+    }
+
+    @FactoryScope
+    public static class FactoryScoped {
+        public FactoryScoped() {
+            System.out.println("Made factory scoped instance");
+        }
+    }
+
     public abstract static class InnerThingy {
         private final String name;
 
@@ -74,6 +202,12 @@ public InnerThingy(String name, ObjectFactory factory) {
         @Inject
         protected abstract TestMod getModInstance();
 
+        protected abstract FactoryScoped getFactoryScoped();
+
+        @Inject
+        @Label("answer")
+        protected abstract int getAnswer();
+
         @SubscribeEvent
         public void commonSetup(FMLCommonSetupEvent event) {
             Objects.requireNonNull(getModInstance());